@@ -241,12 +241,8 @@ public class IndexValueMaintLineItem {
         final LocalDate valueStartDate = getValueStartDate();
         final BigDecimal value = getValue();
 
-        IndexValue indexValue = indexValues.findIndexValueByIndexAndStartDate(index, valueStartDate);
-        if (indexValue == null) {
-            indexValue = indexValues.newIndexValue(index, valueStartDate, value);
-        } else {
-            indexValue.setValue(value);
-        }
+        // updates the value if there already is one
+        final IndexValue indexValue = indexValues.newIndexValue(index, valueStartDate, value);
         setIndexValue(indexValue);
 
         // belt-n-braces so that subsequent queries succeed...
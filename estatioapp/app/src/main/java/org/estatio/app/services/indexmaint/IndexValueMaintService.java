@@ -32,6 +32,10 @@ import org.apache.isis.applib.annotation.Named;
 import org.apache.isis.applib.value.Blob;
 import org.estatio.dom.UdoDomainService;
 import org.estatio.dom.Dflt;
+import org.estatio.dom.excel.ExcelImportResult;
+import org.estatio.dom.excel.ExcelImportService;
+import org.estatio.dom.excel.ExcelRow;
+import org.estatio.dom.excel.ExcelRowHandler;
 import org.estatio.dom.apptenancy.ApplicationTenancyRepository;
 
 
@@ -74,10 +78,25 @@ public class IndexValueMaintService extends UdoDomainService<IndexValueMaintServ
     public List<IndexValueMaintLineItem> uploadIndexValues(
             final @Named("Excel spreadsheet") Blob spreadsheet,
             final ApplicationTenancy applicationTenancy) {
-        List<IndexValueMaintLineItem> lineItems = 
-                excelService.fromExcel(spreadsheet, IndexValueMaintLineItem.class);
-        for (IndexValueMaintLineItem lineItem : lineItems) {
-            lineItem.setAtPath(applicationTenancy.getPath());
+        final List<IndexValueMaintLineItem> lineItems = Lists.newArrayList();
+        // only reads the rows, they are applied by the line items: the line items are
+        // the result of this action, to be verified as a whole and applied in bulk by
+        // the user, so they are kept rather than applied in batches while streaming
+        final ExcelImportResult result = excelImportService.importRows(spreadsheet, 0, new ExcelRowHandler() {
+            @Override
+            public void handle(final ExcelRow row) {
+                final IndexValueMaintLineItem lineItem = getContainer().injectServicesInto(new IndexValueMaintLineItem());
+                lineItem.setReference(row.getString("reference"));
+                lineItem.setBaseStartDate(row.getLocalDate("baseStartDate"));
+                lineItem.setBaseFactor(row.getBigDecimal("baseFactor"));
+                lineItem.setValueStartDate(row.getLocalDate("valueStartDate"));
+                lineItem.setValue(row.getBigDecimal("value"));
+                lineItem.setAtPath(applicationTenancy.getPath());
+                lineItems.add(lineItem);
+            }
+        });
+        if (result.hasErrors()) {
+            getContainer().warnUser(result.toString());
         }
         return lineItems;
     }
@@ -99,4 +118,7 @@ public class IndexValueMaintService extends UdoDomainService<IndexValueMaintServ
     @javax.inject.Inject
     private ApplicationTenancyRepository applicationTenancyRepository;
 
+    @javax.inject.Inject
+    private ExcelImportService excelImportService;
+
 }
@@ -0,0 +1,61 @@
+/*
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.app.services.lease;
+
+import java.util.Map;
+
+import org.apache.isis.applib.ApplicationException;
+
+import org.estatio.dom.lease.LeaseItem;
+import org.estatio.dom.lease.LeaseTerm;
+
+/**
+ * Identifies the lease terms in the spreadsheets of the bulk update managers.
+ *
+ * <p>
+ * Unlike the title of a term, which is the same for the terms of two items of
+ * the same type, the key combines the reference of the lease, the type and
+ * sequence of the item and the sequence of the term.
+ */
+public final class LeaseTermKeys {
+
+    private LeaseTermKeys() {
+    }
+
+    public static String keyOf(final LeaseTerm leaseTerm) {
+        final LeaseItem leaseItem = leaseTerm.getLeaseItem();
+        return String.format("%s:%s:%s:%s",
+                leaseItem.getLease().getReference(),
+                leaseItem.getType(),
+                leaseItem.getSequence(),
+                leaseTerm.getSequence());
+    }
+
+    /**
+     * Adds the term by its key, rejecting a different term with the same key
+     * rather than silently replacing it.
+     */
+    public static <T extends LeaseTerm> void put(final Map<String, T> termsByKey, final T leaseTerm) {
+        final String key = keyOf(leaseTerm);
+        final T existing = termsByKey.put(key, leaseTerm);
+        if (existing != null && existing != leaseTerm) {
+            throw new ApplicationException(String.format("More than one lease term with key '%s'", key));
+        }
+    }
+
+}
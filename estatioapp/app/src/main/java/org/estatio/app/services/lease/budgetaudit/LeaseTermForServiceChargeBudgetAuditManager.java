@@ -17,10 +17,13 @@
  */
 package org.estatio.app.services.lease.budgetaudit;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import org.joda.time.LocalDate;
 
@@ -35,10 +38,16 @@ import org.apache.isis.applib.annotation.Title;
 import org.apache.isis.applib.annotation.ViewModel;
 import org.apache.isis.applib.value.Blob;
 
-import org.isisaddons.module.excel.dom.ExcelService;
-
 import org.estatio.app.EstatioViewModel;
+import org.estatio.app.services.lease.LeaseTermKeys;
 import org.estatio.dom.asset.Property;
+import org.estatio.dom.excel.ExcelImportResult;
+import org.estatio.dom.excel.ExcelImportService;
+import org.estatio.dom.excel.ExcelRow;
+import org.estatio.dom.excel.ExcelRowHandler;
+import org.estatio.dom.excel.ExcelRowWriter;
+import org.estatio.dom.lease.LeaseItemType;
+import org.estatio.dom.lease.LeaseTerm;
 import org.estatio.dom.lease.LeaseTermForServiceCharge;
 import org.estatio.dom.lease.LeaseTerms;
 
@@ -136,27 +145,70 @@ public class LeaseTermForServiceChargeBudgetAuditManager extends EstatioViewMode
     @MemberOrder(name = "serviceCharges", sequence = "1")
     public Blob download() {
         final String fileName = "ServiceChargeBulkUpdate-" + getProperty().getReference() + "@" + getStartDate() + ".xlsx";
-        final List<LeaseTermForServiceChargeBudgetAuditLineItem> lineItems = getServiceCharges();
-        return excelService.toExcel(lineItems, LeaseTermForServiceChargeBudgetAuditLineItem.class, fileName);
+        final List<LeaseTerm> terms = leaseTerms.findWithLeaseByPropertyAndTypeAndStartDate(getProperty(), LeaseItemType.SERVICE_CHARGE, getStartDate());
+        // loads the next terms up front, they share the items and leases
+        leaseTerms.findByPreviousTerms(terms);
+        try (ExcelRowWriter writer = new ExcelRowWriter(
+                "Service Charges", "Lease Term", "Title", "Budgeted Value", "Audited Value", "Next Lease Term", "Next Budgeted Value")) {
+            for (LeaseTerm term : terms) {
+                final LeaseTermForServiceCharge leaseTerm = (LeaseTermForServiceCharge) term;
+                final LeaseTermForServiceCharge nextLeaseTerm = (LeaseTermForServiceCharge) leaseTerm.getNext();
+                writer.addRow(
+                        LeaseTermKeys.keyOf(leaseTerm),
+                        getContainer().titleOf(leaseTerm),
+                        leaseTerm.getBudgetedValue(),
+                        leaseTerm.getAuditedValue(),
+                        nextLeaseTerm == null ? null : LeaseTermKeys.keyOf(nextLeaseTerm),
+                        nextLeaseTerm == null ? null : nextLeaseTerm.getBudgetedValue());
+            }
+            return writer.toBlob(fileName);
+        }
     }
 
     // //////////////////////////////////////
 
     @MemberOrder(name = "serviceCharges", sequence = "2")
     public LeaseTermForServiceChargeBudgetAuditManager upload(final @Named("Excel spreadsheet") Blob spreadsheet) {
-        List<LeaseTermForServiceChargeBudgetAuditLineItem> lineItems =
-                excelService.fromExcel(spreadsheet, LeaseTermForServiceChargeBudgetAuditLineItem.class);
-        for (LeaseTermForServiceChargeBudgetAuditLineItem lineItem : lineItems) {
-            final LeaseTermForServiceCharge leaseTerm = lineItem.getLeaseTerm();
-            leaseTerm.setAuditedValue(lineItem.getAuditedValue());
-            leaseTerm.setBudgetedValue(lineItem.getBudgetedValue());
-
+        // the spreadsheet refers to the terms by their key, the title is for information only
+        final Map<String, LeaseTermForServiceCharge> termsByKey = Maps.newHashMap();
+        for (LeaseTermForServiceCharge leaseTerm : leaseTerms.findServiceChargeByPropertyAndStartDate(getProperty(), getStartDate())) {
+            LeaseTermKeys.put(termsByKey, leaseTerm);
             final LeaseTermForServiceCharge nextLeaseTerm = (LeaseTermForServiceCharge) leaseTerm.getNext();
-            final LeaseTermForServiceCharge nextLeaseTermUploaded = lineItem.getNextLeaseTerm();
-            if (nextLeaseTerm != null && nextLeaseTerm == nextLeaseTermUploaded) {
-                nextLeaseTerm.setBudgetedValue(lineItem.getNextBudgetedValue());
+            if (nextLeaseTerm != null) {
+                LeaseTermKeys.put(termsByKey, nextLeaseTerm);
             }
         }
+        final ExcelImportResult result = excelImportService.importRows(
+                spreadsheet,
+                ExcelImportService.DEFAULT_BATCH_SIZE,
+                new ExcelRowHandler() {
+                    @Override
+                    public void handle(final ExcelRow row) {
+                        final String key = row.getString("leaseTerm");
+                        final LeaseTermForServiceCharge leaseTerm = termsByKey.get(key);
+                        if (leaseTerm == null) {
+                            throw new IllegalArgumentException(String.format("Lease term '%s' not found", key));
+                        }
+                        // read the whole row before changing anything, so that a failed row leaves nothing behind
+                        final BigDecimal auditedValue = row.getBigDecimal("auditedValue");
+                        final BigDecimal budgetedValue = row.getBigDecimal("budgetedValue");
+                        final LeaseTermForServiceCharge nextLeaseTerm = (LeaseTermForServiceCharge) leaseTerm.getNext();
+                        final LeaseTermForServiceCharge nextLeaseTermUploaded = termsByKey.get(row.getString("nextLeaseTerm"));
+                        final boolean updateNext = nextLeaseTerm != null && nextLeaseTerm == nextLeaseTermUploaded;
+                        final BigDecimal nextBudgetedValue = updateNext ? row.getBigDecimal("nextBudgetedValue") : null;
+
+                        leaseTerm.setAuditedValue(auditedValue);
+                        leaseTerm.setBudgetedValue(budgetedValue);
+                        if (updateNext) {
+                            nextLeaseTerm.setBudgetedValue(nextBudgetedValue);
+                        }
+                    }
+                });
+        if (result.hasErrors()) {
+            getContainer().warnUser(result.toString());
+        } else {
+            getContainer().informUser(result.toString());
+        }
         return this;
     }
 
@@ -166,6 +218,6 @@ public class LeaseTermForServiceChargeBudgetAuditManager extends EstatioViewMode
     private LeaseTerms leaseTerms;
 
     @javax.inject.Inject
-    private ExcelService excelService;
+    private ExcelImportService excelImportService;
 
 }
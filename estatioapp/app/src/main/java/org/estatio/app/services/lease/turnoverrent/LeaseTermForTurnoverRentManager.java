@@ -17,10 +17,13 @@
  */
 package org.estatio.app.services.lease.turnoverrent;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import org.joda.time.LocalDate;
 
@@ -35,10 +38,14 @@ import org.apache.isis.applib.annotation.Title;
 import org.apache.isis.applib.annotation.ViewModel;
 import org.apache.isis.applib.value.Blob;
 
-import org.isisaddons.module.excel.dom.ExcelService;
-
 import org.estatio.app.EstatioViewModel;
+import org.estatio.app.services.lease.LeaseTermKeys;
 import org.estatio.dom.asset.Property;
+import org.estatio.dom.excel.ExcelImportResult;
+import org.estatio.dom.excel.ExcelImportService;
+import org.estatio.dom.excel.ExcelRow;
+import org.estatio.dom.excel.ExcelRowHandler;
+import org.estatio.dom.excel.ExcelRowWriter;
 import org.estatio.dom.lease.LeaseItemType;
 import org.estatio.dom.lease.LeaseTerm;
 import org.estatio.dom.lease.LeaseTermForTurnoverRent;
@@ -144,8 +151,16 @@ public class LeaseTermForTurnoverRentManager extends EstatioViewModel {
     @MemberOrder(name = "turnover", sequence = "1")
     public Blob download() {
         final String fileName = "TurnoverRentBulkUpdate-" + getProperty().getReference() + "@" + getStartDate() + ".xlsx";
-        final List<LeaseTermForTurnoverRentLineItem> lineItems = getTurnoverRents();
-        return excelService.toExcel(lineItems, LeaseTermForTurnoverRentLineItem.class, fileName);
+        final List<LeaseTerm> terms = leaseTerms.findWithLeaseByPropertyAndTypeAndStartDate(getProperty(), LeaseItemType.TURNOVER_RENT, getStartDate());
+        try (ExcelRowWriter writer = new ExcelRowWriter("Turnover Rents", "Lease Term", "Title", "Audited Turnover")) {
+            for (LeaseTerm term : terms) {
+                writer.addRow(
+                        LeaseTermKeys.keyOf(term),
+                        getContainer().titleOf(term),
+                        ((LeaseTermForTurnoverRent) term).getAuditedTurnover());
+            }
+            return writer.toBlob(fileName);
+        }
     }
 
     // //////////////////////////////////////
@@ -154,12 +169,38 @@ public class LeaseTermForTurnoverRentManager extends EstatioViewModel {
 
     @MemberOrder(name = "turnover", sequence = "2")
     public LeaseTermForTurnoverRentManager upload(final @Named("Excel spreadsheet") Blob spreadsheet) {
-        List<LeaseTermForTurnoverRentLineItem> lineItems =
-                excelService.fromExcel(spreadsheet, LeaseTermForTurnoverRentLineItem.class);
-        for (LeaseTermForTurnoverRentLineItem lineItem : lineItems) {
-            final LeaseTermForTurnoverRent leaseTerm = lineItem.getLeaseTerm();
-            leaseTerm.setAuditedTurnover(lineItem.getAuditedTurnover());
-            leaseTerm.verify();
+        // the spreadsheet refers to the terms by their key, the title is for information only
+        final Map<String, LeaseTerm> termsByKey = Maps.newHashMap();
+        for (LeaseTerm leaseTerm : leaseTerms.findWithLeaseByPropertyAndTypeAndStartDate(getProperty(), LeaseItemType.TURNOVER_RENT, getStartDate())) {
+            LeaseTermKeys.put(termsByKey, leaseTerm);
+        }
+        final ExcelImportResult result = excelImportService.importRows(
+                spreadsheet,
+                ExcelImportService.DEFAULT_BATCH_SIZE,
+                new ExcelRowHandler() {
+                    @Override
+                    public void handle(final ExcelRow row) {
+                        final String key = row.getString("leaseTerm");
+                        final LeaseTermForTurnoverRent leaseTerm = (LeaseTermForTurnoverRent) termsByKey.get(key);
+                        if (leaseTerm == null) {
+                            throw new IllegalArgumentException(String.format("Lease term '%s' not found", key));
+                        }
+                        final BigDecimal auditedTurnover = row.getBigDecimal("auditedTurnover");
+                        final BigDecimal previousAuditedTurnover = leaseTerm.getAuditedTurnover();
+                        leaseTerm.setAuditedTurnover(auditedTurnover);
+                        try {
+                            leaseTerm.verify();
+                        } catch (RuntimeException ex) {
+                            // a failed row must leave nothing behind to be committed with its batch
+                            leaseTerm.setAuditedTurnover(previousAuditedTurnover);
+                            throw ex;
+                        }
+                    }
+                });
+        if (result.hasErrors()) {
+            getContainer().warnUser(result.toString());
+        } else {
+            getContainer().informUser(result.toString());
         }
         return this;
     }
@@ -172,7 +213,7 @@ public class LeaseTermForTurnoverRentManager extends EstatioViewModel {
     private LeaseTerms leaseTerms;
 
     @javax.inject.Inject
-    private ExcelService excelService;
+    private ExcelImportService excelImportService;
 
     @javax.inject.Inject
     private LeaseTermForTurnoverRentService budgetAuditService;
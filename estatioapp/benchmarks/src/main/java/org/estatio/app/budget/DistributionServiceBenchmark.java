@@ -0,0 +1,106 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.app.budget;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.estatio.dom.budgeting.Distributable;
+
+/**
+ * Distributes a key table total over the units of a (large) property.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistributionServiceBenchmark {
+
+    @Param({ "50", "500" })
+    public int numberOfUnits;
+
+    @Param({ "3", "6" })
+    public int precision;
+
+    DistributionService distributionService;
+
+    List<Distributable> input;
+
+    BigDecimal targetTotal;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        input = Lists.newArrayList();
+        for (int i = 0; i < numberOfUnits; i++) {
+            input.add(new SimpleDistributable(BigDecimal.valueOf(10 + random.nextInt(2000)).add(new BigDecimal("0.37"))));
+        }
+        targetTotal = new BigDecimal("1000");
+        distributionService = new DistributionService();
+    }
+
+    @Benchmark
+    public List<Distributable> distribute() {
+        return distributionService.distribute(input, targetTotal, precision);
+    }
+
+    static class SimpleDistributable implements Distributable {
+
+        private final BigDecimal sourceValue;
+        private BigDecimal value;
+
+        SimpleDistributable(final BigDecimal sourceValue) {
+            this.sourceValue = sourceValue;
+        }
+
+        @Override
+        public BigDecimal getSourceValue() {
+            return sourceValue;
+        }
+
+        @Override
+        public BigDecimal getValue() {
+            return value;
+        }
+
+        @Override
+        public void setValue(final BigDecimal value) {
+            this.value = value;
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.index;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.joda.time.LocalDate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.estatio.dom.lease.LeaseTermForIndexable;
+
+/**
+ * Indexates a batch of terms against a synthetic monthly index series of
+ * fifteen years with a rebase every five years, held in memory instead of
+ * being queried.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexationServiceBenchmark {
+
+    @Param({ "1000" })
+    public int numberOfTerms;
+
+    static final LocalDate START_DATE = new LocalDate(2000, 1, 1);
+
+    IndexationService indexationService;
+
+    List<LeaseTermForIndexable> leaseTerms;
+
+    @Setup
+    public void setup() {
+        final Map<LocalDate, IndexValue> valuesByDate = Maps.newHashMap();
+        final Index index = new Index();
+        index.setReference("ISTAT-FOI");
+        index.injectIndexValues(new IndexValues() {
+            @Override
+            public List<IndexValue> findByIndex(final Index index) {
+                return Lists.newArrayList(valuesByDate.values());
+            }
+        });
+
+        IndexBase indexBase = null;
+        for (int month = 0; month < 15 * 12; month++) {
+            final LocalDate date = START_DATE.plusMonths(month);
+            if (month % 60 == 0) {
+                final IndexBase previous = indexBase;
+                indexBase = new IndexBase();
+                indexBase.setIndex(index);
+                indexBase.setStartDate(date);
+                if (previous != null) {
+                    indexBase.setFactor(new BigDecimal("1.1234"));
+                    indexBase.modifyPrevious(previous);
+                }
+            }
+            final IndexValue indexValue = new IndexValue();
+            indexValue.setIndexBase(indexBase);
+            indexValue.setStartDate(date);
+            indexValue.setValue(BigDecimal.valueOf(100 + month % 60).setScale(4));
+            valuesByDate.put(date, indexValue);
+        }
+
+        leaseTerms = Lists.newArrayList();
+        for (int i = 0; i < numberOfTerms; i++) {
+            final LeaseTermForIndexable leaseTerm = new LeaseTermForIndexable();
+            leaseTerm.setIndex(index);
+            leaseTerm.setBaseIndexStartDate(START_DATE.plusMonths(i % 60));
+            leaseTerm.setNextIndexStartDate(START_DATE.plusMonths(i % 60 + 12 * (1 + i % 13)));
+            leaseTerm.setBaseValue(BigDecimal.valueOf(10000 + i));
+            leaseTerm.setLevellingPercentage(BigDecimal.valueOf(75));
+            leaseTerms.add(leaseTerm);
+        }
+
+        indexationService = new IndexationService();
+    }
+
+    @Benchmark
+    public List<LeaseTermForIndexable> indexate() {
+        for (LeaseTermForIndexable leaseTerm : leaseTerms) {
+            indexationService.indexate(leaseTerm);
+        }
+        return leaseTerms;
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.LocalDate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.estatio.dom.invoice.InvoicingInterval;
+import org.estatio.dom.valuetypes.LocalDateInterval;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvoicingFrequencyBenchmark {
+
+    @Param({ "MONTHLY_IN_ADVANCE", "QUARTERLY_IN_ADVANCE", "QUARTERLY_IN_ADVANCE_PLUS1M", "YEARLY_IN_ARREARS" })
+    public InvoicingFrequency invoicingFrequency;
+
+    LocalDateInterval quarterRange;
+    LocalDateInterval retroRange;
+    LocalDateInterval sourceInterval;
+
+    @Setup
+    public void setup() {
+        quarterRange = LocalDateInterval.excluding(new LocalDate(2015, 1, 1), new LocalDate(2015, 4, 1));
+        retroRange = LocalDateInterval.excluding(new LocalDate(2005, 1, 1), new LocalDate(2015, 4, 1));
+        sourceInterval = LocalDateInterval.including(new LocalDate(2005, 1, 1), null);
+    }
+
+    @Benchmark
+    public List<InvoicingInterval> intervalsInDueDateRangeForQuarter() {
+        return invoicingFrequency.intervalsInDueDateRange(quarterRange, sourceInterval);
+    }
+
+    @Benchmark
+    public List<InvoicingInterval> intervalsInDueDateRangeForTenYears() {
+        return invoicingFrequency.intervalsInDueDateRange(retroRange, sourceInterval);
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+
+import org.joda.time.LocalDate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.estatio.dom.lease.InvoicingFrequency;
+import org.estatio.dom.lease.Lease;
+import org.estatio.dom.lease.LeaseItem;
+import org.estatio.dom.lease.LeaseItemType;
+import org.estatio.dom.lease.LeaseTerm;
+import org.estatio.dom.lease.LeaseTermForIndexable;
+import org.estatio.domsettings.EstatioSettingsService;
+
+/**
+ * Calculates every term of a synthetic portfolio of leases, each with a rent
+ * item of yearly indexed terms, for a single quarter and for a ten year retro
+ * run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvoiceCalculationServiceBenchmark {
+
+    @Param({ "100" })
+    public int numberOfLeases;
+
+    static final LocalDate START_DATE = new LocalDate(2005, 1, 1);
+
+    InvoiceCalculationService invoiceCalculationService;
+
+    List<LeaseTerm> leaseTerms;
+
+    InvoiceCalculationParameters normalRun;
+    InvoiceCalculationParameters retroRun;
+
+    @Setup
+    public void setup() {
+        invoiceCalculationService = new InvoiceCalculationService();
+        invoiceCalculationService.estatioSettingsService = new EstatioSettingsService() {
+            @Override
+            public LocalDate fetchEpochDate() {
+                return new LocalDate(2010, 1, 1);
+            }
+        };
+
+        leaseTerms = Lists.newArrayList();
+        for (int i = 0; i < numberOfLeases; i++) {
+            final Lease lease = new Lease();
+            lease.setReference("LEASE-" + i);
+            lease.setStartDate(START_DATE);
+            lease.setEndDate(START_DATE.plusYears(20).minusDays(1));
+
+            final LeaseItem leaseItem = new LeaseItem();
+            leaseItem.setLease(lease);
+            leaseItem.setType(LeaseItemType.RENT);
+            leaseItem.setStartDate(START_DATE);
+            leaseItem.setInvoicingFrequency(InvoicingFrequency.QUARTERLY_IN_ADVANCE);
+
+            for (int year = 0; year < 10; year++) {
+                final LeaseTermForIndexable leaseTerm = new LeaseTermForIndexable();
+                leaseTerm.setLeaseItem(leaseItem);
+                leaseTerm.setStartDate(START_DATE.plusYears(year));
+                leaseTerm.setEndDate(START_DATE.plusYears(year + 1).minusDays(1));
+                leaseTerm.setBaseValue(BigDecimal.valueOf(20000 + 100 * i));
+                leaseTerm.setIndexedValue(BigDecimal.valueOf(20000 + 100 * i + 250 * year));
+                leaseTerm.setEffectiveDate(START_DATE.plusYears(year).plusMonths(2));
+                leaseTerms.add(leaseTerm);
+            }
+        }
+
+        normalRun = new InvoiceCalculationParameters(
+                InvoiceRunType.NORMAL_RUN,
+                new LocalDate(2014, 1, 1),
+                new LocalDate(2014, 1, 1),
+                new LocalDate(2014, 1, 2));
+        retroRun = new InvoiceCalculationParameters(
+                InvoiceRunType.RETRO_RUN,
+                new LocalDate(2014, 1, 1),
+                new LocalDate(2005, 1, 1),
+                new LocalDate(2014, 1, 2));
+    }
+
+    @Benchmark
+    public void calculateDueDateRangeNormalRun(final Blackhole blackhole) {
+        for (LeaseTerm leaseTerm : leaseTerms) {
+            blackhole.consume(invoiceCalculationService.calculateDueDateRange(leaseTerm, normalRun));
+        }
+    }
+
+    @Benchmark
+    public void calculateDueDateRangeRetroRun(final Blackhole blackhole) {
+        for (LeaseTerm leaseTerm : leaseTerms) {
+            blackhole.consume(invoiceCalculationService.calculateDueDateRange(leaseTerm, retroRun));
+        }
+    }
+
+}
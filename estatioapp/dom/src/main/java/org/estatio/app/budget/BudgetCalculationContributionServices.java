@@ -2,15 +2,21 @@ package org.estatio.app.budget;
 
 import org.apache.isis.applib.annotation.*;
 import org.estatio.app.budget.viewmodels.BudgetCalculation;
+import org.estatio.dom.asset.Unit;
 import org.estatio.dom.budgeting.Distributable;
 import org.estatio.dom.budgeting.keyitem.KeyItem;
+import org.estatio.dom.budgeting.keytable.KeyTable;
 import org.estatio.dom.budgeting.schedule.Schedule;
+import org.estatio.dom.budgeting.schedule.ScheduleDistribution;
 import org.estatio.dom.budgeting.scheduleitem.ScheduleItem;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @DomainService(nature = NatureOfService.VIEW_CONTRIBUTIONS_ONLY)
 public class BudgetCalculationContributionServices {
@@ -19,12 +25,16 @@ public class BudgetCalculationContributionServices {
     @ActionLayout(contributed = Contributed.AS_ASSOCIATION)
     @CollectionLayout(render = RenderType.EAGERLY)
     public List<BudgetCalculation> distributionOverUnits(final ScheduleItem scheduleItem) {
+        return calculateDistribution(scheduleItem, new HashMap<KeyTable, BigDecimal>());
+    }
+
+    private List<BudgetCalculation> calculateDistribution(final ScheduleItem scheduleItem, final Map<KeyTable, BigDecimal> keySums) {
 
         BigDecimal targetTotal = percentageOf(scheduleItem.getBudgetItem().getBudgetedValue(), scheduleItem.getPercentage());
 
         List<Distributable> input = new ArrayList<>();
 
-        BigDecimal keySum = scheduleItem.getKeyTable().getKeyValueMethod().keySum(scheduleItem.getKeyTable());
+        BigDecimal keySum = keySum(scheduleItem.getKeyTable(), keySums);
 
         for (KeyItem keyItem : scheduleItem.getKeyTable().getItems()) {
 
@@ -65,30 +75,59 @@ public class BudgetCalculationContributionServices {
     @CollectionLayout(render = RenderType.EAGERLY)
     public List<BudgetCalculation> distributionOverUnits(final Schedule schedule) {
 
-        List<BudgetCalculation> output = new ArrayList<>();
+        ScheduleDistribution distribution = schedule.getDistribution();
+        if (distribution == null || !distribution.isCurrentFor(schedule)) {
+
+            Map<KeyTable, BigDecimal> keySums = new HashMap<>();
+            Map<Unit, BudgetCalculation> totalsByUnit = new LinkedHashMap<>();
+            for (ScheduleItem scheduleItem : schedule.getScheduleItems()) {
+                addTo(totalsByUnit, calculateDistribution(scheduleItem, keySums));
+            }
+
+            List<ScheduleDistribution.UnitTotal> unitTotals = new ArrayList<>();
+            for (BudgetCalculation total : totalsByUnit.values()) {
+                unitTotals.add(new ScheduleDistribution.UnitTotal(total.getUnit(), total.getValue(), total.getSourceValue()));
+            }
+            distribution = new ScheduleDistribution(schedule, unitTotals);
+            schedule.setDistribution(distribution);
+        }
 
-        for (ScheduleItem scheduleItem : schedule.getScheduleItems()) {
-            output = merge(output, distributionOverUnits(scheduleItem));
+        // new view models every time, as they are mutable
+        List<BudgetCalculation> budgetCalculations = new ArrayList<>();
+        for (ScheduleDistribution.UnitTotal unitTotal : distribution.getUnitTotals()) {
+            budgetCalculations.add(new BudgetCalculation(unitTotal.getUnit(), unitTotal.getValue(), unitTotal.getSourceValue()));
         }
-        return output;
+        return budgetCalculations;
 
     }
 
     List<BudgetCalculation> merge(final List<BudgetCalculation> output, final List<BudgetCalculation> scheduleItemOuput) {
-        for (BudgetCalculation item : scheduleItemOuput) {
-           boolean unitFound = false;
-            for (BudgetCalculation outputItem : output) {
-                if (!unitFound && outputItem.getUnit().equals(item.getUnit())) {
-                    outputItem.setValue(outputItem.getValue().add(item.getValue()));
-                    outputItem.setSourceValue(outputItem.getSourceValue().add(item.getSourceValue()));
-                    unitFound=true;
-                }
-            }
-            if (!unitFound) {
-                output.add(item);
+        Map<Unit, BudgetCalculation> totalsByUnit = new LinkedHashMap<>();
+        addTo(totalsByUnit, output);
+        addTo(totalsByUnit, scheduleItemOuput);
+        return new ArrayList<>(totalsByUnit.values());
+    }
+
+    private void addTo(final Map<Unit, BudgetCalculation> totalsByUnit, final List<BudgetCalculation> budgetCalculations) {
+        for (BudgetCalculation item : budgetCalculations) {
+            BudgetCalculation total = totalsByUnit.get(item.getUnit());
+            if (total == null) {
+                // a copy, the totals are added to while the items passed in are left alone
+                totalsByUnit.put(item.getUnit(), new BudgetCalculation(item.getUnit(), item.getValue(), item.getSourceValue()));
+            } else {
+                total.setValue(total.getValue().add(item.getValue()));
+                total.setSourceValue(total.getSourceValue().add(item.getSourceValue()));
             }
         }
-        return output;
+    }
+
+    private BigDecimal keySum(final KeyTable keyTable, final Map<KeyTable, BigDecimal> keySums) {
+        BigDecimal keySum = keySums.get(keyTable);
+        if (keySum == null) {
+            keySum = keyTable.getKeyValueMethod().keySum(keyTable);
+            keySums.put(keyTable, keySum);
+        }
+        return keySum;
     }
 
     private BigDecimal percentageOf(final BigDecimal value, final BigDecimal percentage) {
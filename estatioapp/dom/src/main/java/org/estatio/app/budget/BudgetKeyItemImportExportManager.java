@@ -42,6 +42,10 @@ import org.isisaddons.module.excel.dom.ExcelService;
 import org.estatio.app.EstatioViewModel;
 import org.estatio.dom.budgeting.keytable.KeyTable;
 import org.estatio.dom.budgeting.keytable.KeyTables;
+import org.estatio.dom.excel.ExcelImportResult;
+import org.estatio.dom.excel.ExcelImportService;
+import org.estatio.dom.excel.ExcelRow;
+import org.estatio.dom.excel.ExcelRowHandler;
 
 @DomainObject(
         nature = Nature.VIEW_MODEL
@@ -148,17 +152,25 @@ public class BudgetKeyItemImportExportManager extends EstatioViewModel {
     @MemberOrder(name = "budgetKeyItems", sequence = "2")
     public List<BudgetKeyItemImportExportLineItem> importBlob(
             @ParameterLayout(named = "Excel spreadsheet") final Blob spreadsheet) {
-        List<BudgetKeyItemImportExportLineItem> lineItems =
-                excelService.fromExcel(spreadsheet, BudgetKeyItemImportExportLineItem.class);
-        container.informUser(lineItems.size() + " items imported");
-
-        List<BudgetKeyItemImportExportLineItem> newItems = new ArrayList<>();
-        for (BudgetKeyItemImportExportLineItem item : lineItems) {
-            //            item.setKeyTable(getKeyTable());
-            // yodo: doesn't work; used trick by changing keyTable to String budgetKeyTableName on BudgetKeyItemImportExportLineItem
-            item.validate();
-            newItems.add(new BudgetKeyItemImportExportLineItem(item));
-        }
+        // the line items are the result of this action, reviewed and applied in bulk
+        // by the user, so they are kept rather than applied in batches while streaming
+        final List<BudgetKeyItemImportExportLineItem> newItems = new ArrayList<>();
+        final ExcelImportResult result = excelImportService.importRows(spreadsheet, 0, new ExcelRowHandler() {
+            @Override
+            public void handle(final ExcelRow row) {
+                final BudgetKeyItemImportExportLineItem item = container.injectServicesInto(new BudgetKeyItemImportExportLineItem());
+                // keyTable is looked up by name, property and start date rather than imported as a reference
+                item.setPropertyReference(row.getString("propertyReference"));
+                item.setStartDate(row.getLocalDate("startDate"));
+                item.setKeyTableName(row.getString("keyTableName"));
+                item.setUnitReference(row.getString("unitReference"));
+                item.setSourceValue(row.getBigDecimal("sourceValue"));
+                item.setKeyValue(row.getBigDecimal("keyValue"));
+                item.validate();
+                newItems.add(new BudgetKeyItemImportExportLineItem(item));
+            }
+        });
+        container.informUser(result.toString());
         return newItems;
     }
 
@@ -173,6 +185,9 @@ public class BudgetKeyItemImportExportManager extends EstatioViewModel {
     @javax.inject.Inject
     private ExcelService excelService;
 
+    @javax.inject.Inject
+    private ExcelImportService excelImportService;
+
     @javax.inject.Inject
     private BudgetKeyItemImportExportService budgetKeyItemImportExportService;
 
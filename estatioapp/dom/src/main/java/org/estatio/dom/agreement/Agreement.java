@@ -29,8 +29,6 @@ import javax.jdo.annotations.InheritanceStrategy;
 import javax.jdo.annotations.VersionStrategy;
 
 import com.google.common.base.Objects;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 
@@ -59,7 +57,6 @@ import org.estatio.dom.Chained;
 import org.estatio.dom.EstatioDomainObject;
 import org.estatio.dom.JdoColumnLength;
 import org.estatio.dom.RegexValidation;
-import org.estatio.dom.WithInterval;
 import org.estatio.dom.WithIntervalMutable;
 import org.estatio.dom.WithNameGetter;
 import org.estatio.dom.WithReferenceComparable;
@@ -198,28 +195,29 @@ public abstract class Agreement
     }
 
     protected AgreementRole findCurrentOrMostRecentAgreementRole(final String agreementRoleTypeTitle) {
-        final AgreementRoleType art = agreementRoleTypeRepository.findByTitle(agreementRoleTypeTitle);
-        return findCurrentOrMostRecentAgreementRole(art);
+        final AgreementRoleIndex roleIndex = roleIndex();
+        // the role types of this agreement are resolved from its own roles, falling back to the repository
+        if (!roleIndex.containsTypeWithTitle(agreementRoleTypeTitle)) {
+            roleIndex.putType(agreementRoleTypeTitle, agreementRoleTypeRepository.findByTitle(agreementRoleTypeTitle));
+        }
+        return findCurrentOrMostRecentAgreementRole(roleIndex.typeWithTitle(agreementRoleTypeTitle));
     }
 
     private AgreementRole findCurrentOrMostRecentAgreementRole(final AgreementRoleType agreementRoleType) {
         // all available roles
-        final Iterable<AgreementRole> rolesOfType =
-                Iterables.filter(getRoles(), AgreementRole.Predicates.whetherTypeIs(agreementRoleType));
+        final List<AgreementRole> rolesOfType = roleIndex().rolesOfType(agreementRoleType);
+        if (rolesOfType.isEmpty()) {
+            return null;
+        }
 
         // try to find the one that is current...
-        Iterable<AgreementRole> roles =
-                Iterables.filter(rolesOfType, WithInterval.Predicates.<AgreementRole>whetherCurrentIs(true));
-
-        // ... else the most recently ended one
-        if (Iterables.isEmpty(roles)) {
-            final List<AgreementRole> rolesInList = Lists.newArrayList(rolesOfType);
-            roles = orderRolesByEffectiveEndDateReverseNullsFirst().leastOf(rolesInList, 1);
+        final AgreementRole currentRole = AgreementRoleIndex.activeOn(rolesOfType, rolesOfType.get(0).today());
+        if (currentRole != null) {
+            return currentRole;
         }
 
-        // and return the party
-        final AgreementRole currentOrMostRecentRole = ValueUtils.firstElseNull(roles);
-        return currentOrMostRecentRole;
+        // ... else the most recently ended one
+        return ValueUtils.firstElseNull(orderRolesByEffectiveEndDateReverseNullsFirst().leastOf(rolesOfType, 1));
     }
 
     protected Party partyOf(final AgreementRole agreementRole) {
@@ -392,6 +390,24 @@ public abstract class Agreement
         this.roles = actors;
     }
 
+    @javax.jdo.annotations.NotPersistent
+    private AgreementRoleIndex roleIndex;
+
+    private AgreementRoleIndex roleIndex() {
+        if (roleIndex == null || !roleIndex.isCurrentFor(getRoles())) {
+            roleIndex = new AgreementRoleIndex(getRoles());
+        }
+        return roleIndex;
+    }
+
+    /**
+     * Discards the index of the roles by type, to be called when a role is added or its dates change.
+     */
+    @Programmatic
+    public void invalidateRoleIndex() {
+        roleIndex = null;
+    }
+
     public Agreement newRole(
             final @ParameterLayout(named = "Type") AgreementRoleType type,
             final Party party,
@@ -456,6 +472,7 @@ public abstract class Agreement
         role.setAgreement(this);
 
         persistIfNotAlready(role);
+        invalidateRoleIndex();
 
         return role;
     }
@@ -233,6 +233,7 @@ public class AgreementRole
             final @Parameter(optionality = Optionality.OPTIONAL) @ParameterLayout(named = "Start Date") LocalDate startDate,
             final @Parameter(optionality = Optionality.OPTIONAL) @ParameterLayout(named = "End Date") LocalDate endDate) {
         helper.changeDates(startDate, endDate);
+        getAgreement().invalidateRoleIndex();
         return this;
     }
 
@@ -278,10 +279,14 @@ public class AgreementRole
         return isActiveOn(getClockService().now());
     }
 
-    private boolean isActiveOn(final LocalDate localDate) {
+    boolean isActiveOn(final LocalDate localDate) {
         return getInterval().contains(localDate);
     }
 
+    LocalDate today() {
+        return getClockService().now();
+    }
+
     // //////////////////////////////////////
 
     @Property(optionality = Optionality.OPTIONAL, editing = Editing.DISABLED, hidden = Where.ALL_TABLES)
@@ -323,7 +328,9 @@ public class AgreementRole
             final Party party,
             final @ParameterLayout(named = "Start date") LocalDate startDate,
             final @Parameter(optionality = Optionality.OPTIONAL) @ParameterLayout(named = "End date") LocalDate endDate) {
-        return helper.succeededBy(startDate, endDate, new SiblingFactory(this, party));
+        final AgreementRole successor = helper.succeededBy(startDate, endDate, new SiblingFactory(this, party));
+        getAgreement().invalidateRoleIndex();
+        return successor;
     }
 
     public LocalDate default1SucceededBy() {
@@ -354,7 +361,9 @@ public class AgreementRole
             final @Parameter(optionality = Optionality.OPTIONAL) @ParameterLayout(named = "Start date") LocalDate startDate,
             final @ParameterLayout(named = "End date") LocalDate endDate) {
 
-        return helper.precededBy(startDate, endDate, new SiblingFactory(this, party));
+        final AgreementRole predecessor = helper.precededBy(startDate, endDate, new SiblingFactory(this, party));
+        getAgreement().invalidateRoleIndex();
+        return predecessor;
     }
 
     public LocalDate default2PrecededBy() {
@@ -0,0 +1,108 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.agreement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+
+import org.joda.time.LocalDate;
+
+/**
+ * The {@link Agreement#getRoles() roles} of an {@link Agreement} grouped by their {@link AgreementRoleType type},
+ * each group in the order of the roles (most recent start date first), and the role types by their title.
+ */
+class AgreementRoleIndex {
+
+    private final int numberOfRoles;
+    private final Map<AgreementRoleType, List<AgreementRole>> rolesByType = new HashMap<>();
+    private final Map<String, AgreementRoleType> typesByTitle = new HashMap<>();
+
+    AgreementRoleIndex(final SortedSet<AgreementRole> roles) {
+        numberOfRoles = roles.size();
+        for (AgreementRole role : roles) {
+            final AgreementRoleType type = role.getType();
+            List<AgreementRole> rolesOfType = rolesByType.get(type);
+            if (rolesOfType == null) {
+                rolesOfType = new ArrayList<>();
+                rolesByType.put(type, rolesOfType);
+            }
+            rolesOfType.add(role);
+            if (type != null && type.getTitle() != null && !typesByTitle.containsKey(type.getTitle())) {
+                typesByTitle.put(type.getTitle(), type);
+            }
+        }
+    }
+
+    boolean isCurrentFor(final SortedSet<AgreementRole> roles) {
+        return roles.size() == numberOfRoles;
+    }
+
+    /**
+     * The type with the given title among the roles, or the one recorded by {@link #putType(String, AgreementRoleType)}.
+     */
+    AgreementRoleType typeWithTitle(final String title) {
+        return typesByTitle.get(title);
+    }
+
+    boolean containsTypeWithTitle(final String title) {
+        return typesByTitle.containsKey(title);
+    }
+
+    void putType(final String title, final AgreementRoleType type) {
+        typesByTitle.put(title, type);
+    }
+
+    List<AgreementRole> rolesOfType(final AgreementRoleType type) {
+        final List<AgreementRole> rolesOfType = rolesByType.get(type);
+        return rolesOfType != null ? rolesOfType : Collections.<AgreementRole>emptyList();
+    }
+
+    /**
+     * The first of the roles (ordered by start date, most recent first) that is active on the given date.
+     *
+     * <p>
+     * Roles starting after the date are skipped with a binary search; usually the first remaining role is the
+     * active one, roles that overlap are checked in order.
+     */
+    static AgreementRole activeOn(final List<AgreementRole> rolesOfType, final LocalDate date) {
+        int low = 0;
+        int high = rolesOfType.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            final LocalDate startDate = rolesOfType.get(mid).getStartDate();
+            if (startDate == null || !startDate.isAfter(date)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        for (int i = low; i < rolesOfType.size(); i++) {
+            final AgreementRole role = rolesOfType.get(i);
+            if (role.isActiveOn(date)) {
+                return role;
+            }
+        }
+        return null;
+    }
+
+}
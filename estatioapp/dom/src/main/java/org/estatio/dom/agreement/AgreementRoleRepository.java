@@ -57,6 +57,7 @@ public class AgreementRoleRepository extends UdoDomainRepositoryAndFactory<Agree
                                      // impl.
         agreementRole.setParty(party);
         agreementRole.setAgreement(agreement);
+        agreement.invalidateRoleIndex();
         return agreementRole;
     }
 
@@ -147,6 +147,7 @@ public class KeyItem extends EstatioDomainObject<KeyItem>
 
     public KeyItem changeValue(final @ParameterLayout(named = "Key value") BigDecimal keyValue) {
         setValue(keyValue.setScale(getKeyTable().getNumberOfDigits(), BigDecimal.ROUND_HALF_UP));
+        getKeyTable().invalidateBudgetCalculations();
         return this;
     }
 
@@ -197,6 +198,7 @@ public class KeyItem extends EstatioDomainObject<KeyItem>
     //region > deleteBudgetKeyItem
     public KeyTable deleteBudgetKeyItem(@ParameterLayout(named = "Are you sure?") final boolean confirmDelete) {
         removeIfNotAlready(this);
+        getKeyTable().invalidateBudgetCalculations();
         return this.getKeyTable();
     }
 
@@ -208,6 +210,7 @@ public class KeyItem extends EstatioDomainObject<KeyItem>
     @Programmatic
     public void deleteBudgetKeyItem() {
         removeIfNotAlready(this);
+        getKeyTable().invalidateBudgetCalculations();
     }
 
     @Override
@@ -48,6 +48,7 @@ public class KeyItems extends UdoDomainRepositoryAndFactory<KeyItem> {
         keyItem.setSourceValue(sourceValue);
         keyItem.setValue(keyValue);
         persistIfNotAlready(keyItem);
+        keyTable.invalidateBudgetCalculations();
 
         return keyItem;
     }
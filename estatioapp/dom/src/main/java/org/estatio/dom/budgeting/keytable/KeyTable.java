@@ -267,6 +267,7 @@ public class KeyTable extends EstatioDomainObject<Budget> implements WithInterva
     public KeyTable changeKeyValueMethod(
             final @ParameterLayout(named = "Key value method") KeyValueMethod keyValueMethod) {
         setKeyValueMethod(keyValueMethod);
+        invalidateBudgetCalculations();
         return this;
     }
 
@@ -297,6 +298,7 @@ public class KeyTable extends EstatioDomainObject<Budget> implements WithInterva
     public KeyTable changeNumberOfDigits(
             final @ParameterLayout(named = "Number Of Digits") Integer numberOfDigits) {
         setNumberOfDigits(numberOfDigits);
+        invalidateBudgetCalculations();
         return this;
     }
 
@@ -328,47 +330,114 @@ public class KeyTable extends EstatioDomainObject<Budget> implements WithInterva
 
     @MemberOrder(name = "items", sequence = "2")
     public KeyTable generateItems(
-            @ParameterLayout(named = "Are you sure? (All current Key Items will be deleted.)")
+            @ParameterLayout(named = "Are you sure? (Key Items will be updated to the current units.)")
             @Parameter(optionality = Optionality.OPTIONAL)
             boolean confirmGenerate) {
 
-        //delete old items
-        for (Iterator<KeyItem> it = this.getItems().iterator(); it.hasNext(); ) {
-            it.next().deleteBudgetKeyItem();
-        }
-
         /*
-        create list of input pairs: identifier - sourcevalue
+        determine the source value of every valid unit
         sourcevalue is determined by FoundationValueType
         */
-        List<Distributable> input = new ArrayList<>();
-
+        Map<Unit, BigDecimal> sourceValues = new LinkedHashMap<>();
         for (Unit unit : unitRepository.findByProperty(this.getProperty())) {
-
             if (unitIntervalValidForThisKeyTable(unit)) {
-                BigDecimal sourceValue;
-                if (getFoundationValueType().valueOf(unit) != null) {
-                    sourceValue = getFoundationValueType().valueOf(unit);
-                } else {
-                    sourceValue = BigDecimal.ZERO;
-                }
-                KeyItem newItem = new KeyItem();
-                newItem.setSourceValue(sourceValue);
-                newItem.setValue(BigDecimal.ZERO);
-                newItem.setUnit(unit);
-                newItem.setKeyTable(this);
-                persistIfNotAlready(newItem);
-                input.add(newItem);
+                BigDecimal sourceValue = getFoundationValueType().valueOf(unit);
+                sourceValues.put(unit, sourceValue != null ? sourceValue : BigDecimal.ZERO);
+            }
+        }
+
+        updateItems(sourceValues);
+
+        return this;
+    }
+
+    /**
+     * Brings the key items in line with the given source values per unit: items of units no longer present are
+     * deleted, items of new units are created and the target values are redistributed once over all units. Only
+     * the items of which the source value or the target value actually changes are written; the audited value of
+     * an item is cleared when its target value changes.
+     */
+    @Programmatic
+    public void updateItems(final Map<Unit, BigDecimal> sourceValues) {
+
+        // diff against the existing items by unit
+        Map<Unit, KeyItem> existingItems = new HashMap<>();
+        List<KeyItem> obsoleteItems = new ArrayList<>();
+        for (KeyItem keyItem : getItems()) {
+            if (sourceValues.containsKey(keyItem.getUnit()) && !existingItems.containsKey(keyItem.getUnit())) {
+                existingItems.put(keyItem.getUnit(), keyItem);
+            } else {
+                obsoleteItems.add(keyItem);
             }
         }
 
+        List<KeyValue> keyValues = new ArrayList<>();
+        for (Map.Entry<Unit, BigDecimal> entry : sourceValues.entrySet()) {
+            keyValues.add(new KeyValue(entry.getKey(), entry.getValue(), existingItems.get(entry.getKey())));
+        }
+
         /*
         call distribute method
          */
         DistributionService distributionService = new DistributionService();
-        distributionService.distribute(input, getKeyValueMethod().targetTotal(), getNumberOfDigits());
+        distributionService.distribute(new ArrayList<Distributable>(keyValues), getKeyValueMethod().targetTotal(), getNumberOfDigits());
 
-        return this;
+        for (KeyItem keyItem : obsoleteItems) {
+            removeIfNotAlready(keyItem);
+        }
+        for (KeyValue keyValue : keyValues) {
+            KeyItem keyItem = keyValue.keyItem;
+            if (keyItem == null) {
+                keyItem = new KeyItem();
+                keyItem.setSourceValue(keyValue.sourceValue);
+                keyItem.setValue(keyValue.value);
+                keyItem.setUnit(keyValue.unit);
+                keyItem.setKeyTable(this);
+                persistIfNotAlready(keyItem);
+                continue;
+            }
+            if (keyItem.getSourceValue().compareTo(keyValue.sourceValue) != 0) {
+                keyItem.setSourceValue(keyValue.sourceValue);
+            }
+            if (keyItem.getValue().compareTo(keyValue.value) != 0) {
+                keyItem.setValue(keyValue.value);
+                // the audit was of the previous value, as when the items were regenerated
+                keyItem.setAuditedValue(null);
+            }
+        }
+        invalidateBudgetCalculations();
+    }
+
+    /**
+     * The source value of a unit and the target value distributed to it, before being written to its key item.
+     */
+    private static class KeyValue implements Distributable {
+
+        private final Unit unit;
+        private final BigDecimal sourceValue;
+        private final KeyItem keyItem;
+        private BigDecimal value;
+
+        KeyValue(final Unit unit, final BigDecimal sourceValue, final KeyItem keyItem) {
+            this.unit = unit;
+            this.sourceValue = sourceValue;
+            this.keyItem = keyItem;
+        }
+
+        @Override
+        public BigDecimal getSourceValue() {
+            return sourceValue;
+        }
+
+        @Override
+        public BigDecimal getValue() {
+            return value;
+        }
+
+        @Override
+        public void setValue(final BigDecimal value) {
+            this.value = value;
+        }
     }
 
     public String validateGenerateItems(boolean confirmGenerate) {
@@ -392,6 +461,7 @@ public class KeyTable extends EstatioDomainObject<Budget> implements WithInterva
 
         DistributionService distributionService = new DistributionService();
         distributionService.distribute(new ArrayList(getItems()), getKeyValueMethod().targetTotal(), getNumberOfDigits());
+        invalidateBudgetCalculations();
 
         return this;
     }
@@ -402,6 +472,25 @@ public class KeyTable extends EstatioDomainObject<Budget> implements WithInterva
 
     // //////////////////////////////////////
 
+    @javax.jdo.annotations.NotPersistent
+    private int calculationRevision;
+
+    /**
+     * Incremented whenever the key values of this table change, which invalidates the budget calculations of the
+     * schedules using it.
+     */
+    @Programmatic
+    public int getCalculationRevision() {
+        return calculationRevision;
+    }
+
+    @Programmatic
+    public void invalidateBudgetCalculations() {
+        calculationRevision++;
+    }
+
+    // //////////////////////////////////////
+
     @Override
     @MemberOrder(sequence = "7")
     @PropertyLayout(hidden = Where.EVERYWHERE)
@@ -446,6 +535,7 @@ public class KeyTable extends EstatioDomainObject<Budget> implements WithInterva
         for (KeyItem keyItem : getItems()) {
             removeIfNotAlready(keyItem);
         }
+        invalidateBudgetCalculations();
 
         return this;
     }
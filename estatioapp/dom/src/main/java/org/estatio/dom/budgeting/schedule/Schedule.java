@@ -238,6 +238,25 @@ public class Schedule extends EstatioDomainObject<Schedule> implements WithInter
         this.scheduleItems = scheduleItems;
     }
 
+    // //////////////////////////////////////
+
+    @javax.jdo.annotations.NotPersistent
+    private ScheduleDistribution distribution;
+
+    /**
+     * The distribution of this schedule over its units as last calculated, kept for as long as it is
+     * {@link ScheduleDistribution#isCurrentFor(Schedule) current}.
+     */
+    @Programmatic
+    public ScheduleDistribution getDistribution() {
+        return distribution;
+    }
+
+    @Programmatic
+    public void setDistribution(final ScheduleDistribution distribution) {
+        this.distribution = distribution;
+    }
+
 
     public Budget deleteSchedule(final boolean confirmDelete) {
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2015 Eurocommercial Properties NV
+ *
+ * Licensed under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.estatio.dom.budgeting.schedule;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.estatio.dom.asset.Unit;
+import org.estatio.dom.budgeting.keytable.KeyTable;
+import org.estatio.dom.budgeting.scheduleitem.ScheduleItem;
+
+/**
+ * The distribution of a {@link Schedule} over its units, together with the state of the schedule items, key tables
+ * and budget items it was calculated from.
+ *
+ * <p>
+ * The totals per unit are immutable, so that the distribution can be kept with the schedule and handed out again;
+ * callers build their own (mutable) view models from them.
+ */
+public class ScheduleDistribution {
+
+    private final List<Object> signature;
+    private final List<UnitTotal> unitTotals;
+
+    public ScheduleDistribution(final Schedule schedule, final List<UnitTotal> unitTotals) {
+        this.signature = signatureOf(schedule);
+        this.unitTotals = Collections.unmodifiableList(new ArrayList<>(unitTotals));
+    }
+
+    public List<UnitTotal> getUnitTotals() {
+        return unitTotals;
+    }
+
+    /**
+     * Whether none of the schedule items, nor the key items or budget items they refer to, have changed since
+     * this distribution was calculated.
+     */
+    public boolean isCurrentFor(final Schedule schedule) {
+        return signature.equals(signatureOf(schedule));
+    }
+
+    static List<Object> signatureOf(final Schedule schedule) {
+        List<Object> signature = new ArrayList<>();
+        for (ScheduleItem scheduleItem : schedule.getScheduleItems()) {
+            final KeyTable keyTable = scheduleItem.getKeyTable();
+            signature.add(scheduleItem);
+            signature.add(scheduleItem.getPercentage());
+            signature.add(keyTable);
+            signature.add(keyTable.getCalculationRevision());
+            signature.add(keyTable.getKeyValueMethod());
+            signature.add(keyTable.getNumberOfDigits());
+            signature.add(keyTable.getItems().size());
+            signature.add(scheduleItem.getBudgetItem());
+            signature.add(scheduleItem.getBudgetItem().getBudgetedValue());
+        }
+        return signature;
+    }
+
+    // //////////////////////////////////////
+
+    /**
+     * The value and source value distributed to a unit.
+     */
+    public static class UnitTotal {
+
+        private final Unit unit;
+        private final BigDecimal value;
+        private final BigDecimal sourceValue;
+
+        public UnitTotal(final Unit unit, final BigDecimal value, final BigDecimal sourceValue) {
+            this.unit = unit;
+            this.value = value;
+            this.sourceValue = sourceValue;
+        }
+
+        public Unit getUnit() {
+            return unit;
+        }
+
+        public BigDecimal getValue() {
+            return value;
+        }
+
+        public BigDecimal getSourceValue() {
+            return sourceValue;
+        }
+    }
+
+}
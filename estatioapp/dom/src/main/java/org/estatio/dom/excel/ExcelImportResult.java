@@ -0,0 +1,104 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.excel;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+
+/**
+ * The outcome of importing a spreadsheet, see
+ * {@link ExcelImportService#importRows(org.apache.isis.applib.value.Blob, int, ExcelRowHandler)}.
+ */
+public class ExcelImportResult {
+
+    private int rowsRead;
+    private int rowsImported;
+    private int batchesCommitted;
+    private final List<String> errors = Lists.newArrayList();
+
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    public int getRowsImported() {
+        return rowsImported;
+    }
+
+    public int getBatchesCommitted() {
+        return batchesCommitted;
+    }
+
+    /**
+     * The rows that could not be imported, with the reason.
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    // //////////////////////////////////////
+
+    void rowImported() {
+        rowsRead++;
+        rowsImported++;
+    }
+
+    void rowFailed(final ExcelRow row, final Exception ex) {
+        rowsRead++;
+        errors.add(String.format("Row %d: %s", row.getRowNumber(), ex.getMessage()));
+    }
+
+    /**
+     * A row that was applied, but failed when its batch was applied again.
+     */
+    void rowRejected(final ExcelRow row, final Exception ex) {
+        rowsImported--;
+        errors.add(String.format("Row %d: %s", row.getRowNumber(), ex.getMessage()));
+    }
+
+    void batchCommitted() {
+        batchesCommitted++;
+    }
+
+    void batchFailed(final List<ExcelRow> batch, final Exception ex) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        errors.add(String.format(
+                "Rows %d to %d could not be committed and were applied one by one: %s",
+                batch.get(0).getRowNumber(), batch.get(batch.size() - 1).getRowNumber(), ex.getMessage()));
+    }
+
+    // //////////////////////////////////////
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d of %d rows imported%s",
+                rowsImported, rowsRead,
+                errors.isEmpty() ? "" : "; " + Joiner.on("; ").join(errors));
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.excel;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import com.google.common.collect.Lists;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.xml.sax.SAXException;
+
+import org.apache.isis.applib.ApplicationException;
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.xactn.TransactionService;
+import org.apache.isis.applib.value.Blob;
+
+import org.estatio.dom.UdoDomainService;
+
+/**
+ * Imports spreadsheets row by row, as an alternative to
+ * <tt>ExcelService#fromExcel</tt> that neither builds the workbook nor all
+ * of the line items in memory.
+ */
+@DomainService(nature = NatureOfService.DOMAIN)
+public class ExcelImportService extends UdoDomainService<ExcelImportService> {
+
+    /**
+     * Number of rows applied and committed per transaction by default.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    public ExcelImportService() {
+        super(ExcelImportService.class);
+    }
+
+    /**
+     * Passes every row of the spreadsheet to the handler, committing every
+     * batch of <tt>batchSize</tt> rows in its own transaction; all in the
+     * current transaction if <tt>batchSize</tt> is <tt>0</tt>.
+     *
+     * <p>
+     * Rows that fail are recorded in the result and do not stop the import.
+     * A handler must fail a row before changing anything, as the changes of a
+     * failed row would otherwise be committed with its batch.
+     *
+     * <p>
+     * If a batch cannot be committed, for example because a constraint is
+     * violated on flush, it is rolled back, recorded in the result and its
+     * rows are applied again one by one, each in its own transaction, so that
+     * only the rows that fail are lost.
+     */
+    @Programmatic
+    public ExcelImportResult importRows(final Blob spreadsheet, final int batchSize, final ExcelRowHandler handler) {
+        final ExcelImportResult result = new ExcelImportResult();
+        final List<ExcelRow> batch = Lists.newArrayList();
+        final ExcelRowHandler batchingHandler = new ExcelRowHandler() {
+            private int rowsInBatch;
+
+            @Override
+            public void handle(final ExcelRow row) {
+                try {
+                    handler.handle(row);
+                    result.rowImported();
+                    batch.add(row);
+                } catch (RuntimeException ex) {
+                    result.rowFailed(row, ex);
+                }
+                if (batchSize > 0 && ++rowsInBatch == batchSize) {
+                    commit(batch, handler, result);
+                    rowsInBatch = 0;
+                }
+            }
+        };
+        try {
+            ExcelRowReader.read(new ByteArrayInputStream(spreadsheet.getBytes()), batchingHandler);
+        } catch (IOException | OpenXML4JException | SAXException ex) {
+            throw new ApplicationException(
+                    String.format("Could not read %s after %s", spreadsheet.getName(), result), ex);
+        }
+        if (batchSize > 0 && !batch.isEmpty()) {
+            commit(batch, handler, result);
+        }
+        return result;
+    }
+
+    private void commit(final List<ExcelRow> batch, final ExcelRowHandler handler, final ExcelImportResult result) {
+        try {
+            transactionService.flushTransaction();
+            transactionService.nextTransaction();
+            result.batchCommitted();
+        } catch (RuntimeException ex) {
+            // a transaction that failed to flush is rolled back when the next one is started
+            transactionService.nextTransaction();
+            result.batchFailed(batch, ex);
+            replay(batch, handler, result);
+        }
+        batch.clear();
+    }
+
+    private void replay(final List<ExcelRow> batch, final ExcelRowHandler handler, final ExcelImportResult result) {
+        for (ExcelRow row : batch) {
+            try {
+                handler.handle(row);
+                transactionService.flushTransaction();
+                transactionService.nextTransaction();
+            } catch (RuntimeException ex) {
+                transactionService.nextTransaction();
+                result.rowRejected(row, ex);
+            }
+        }
+    }
+
+    // //////////////////////////////////////
+
+    @Inject
+    private TransactionService transactionService;
+
+}
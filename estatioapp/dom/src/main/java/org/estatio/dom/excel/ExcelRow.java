@@ -0,0 +1,98 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.excel;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.joda.time.LocalDate;
+
+/**
+ * A row of a spreadsheet read by {@link ExcelRowReader}, with its cells by
+ * the names in the header row.
+ *
+ * <p>
+ * Columns are matched ignoring case, spaces and punctuation, so that both
+ * <tt>baseStartDate</tt> and <tt>Base Start Date</tt> find the same column.
+ * Missing columns and empty cells are <tt>null</tt>.
+ */
+public class ExcelRow {
+
+    private final int rowNumber;
+    private final Map<String, String> cellsByColumn;
+
+    ExcelRow(final int rowNumber, final Map<String, String> cellsByColumn) {
+        this.rowNumber = rowNumber;
+        this.cellsByColumn = cellsByColumn;
+    }
+
+    /**
+     * The number of the row as shown by Excel, starting at 1 for the header.
+     */
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    public String getString(final String column) {
+        final String value = cellsByColumn.get(normalize(column));
+        if (value == null) {
+            return null;
+        }
+        final String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    public BigDecimal getBigDecimal(final String column) {
+        final String value = getString(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            // numeric cells hold doubles, so round off their binary noise
+            return BigDecimal.valueOf(Double.parseDouble(value));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(String.format("%s: '%s' is not a number", column, value));
+        }
+    }
+
+    public LocalDate getLocalDate(final String column) {
+        final String value = getString(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.fromDateFields(DateUtil.getJavaDate(Double.parseDouble(value)));
+        } catch (NumberFormatException ex) {
+            // not a date cell, but possibly a date as text
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(String.format("%s: '%s' is not a date", column, value));
+        }
+    }
+
+    // //////////////////////////////////////
+
+    static String normalize(final String column) {
+        return column == null ? null : column.replaceAll("[^\\p{Alnum}]", "").toLowerCase();
+    }
+
+}
@@ -0,0 +1,37 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.excel;
+
+/**
+ * Applies a single row of a spreadsheet, see
+ * {@link ExcelImportService#importRows(org.apache.isis.applib.value.Blob, int, ExcelRowHandler)}.
+ */
+public interface ExcelRowHandler {
+
+    /**
+     * May be called again for the same row if its batch could not be
+     * committed.
+     *
+     * @throws RuntimeException if the row cannot be applied, before changing
+     * anything; the import records the message and continues with the next
+     * row.
+     */
+    void handle(ExcelRow row);
+
+}
@@ -0,0 +1,213 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.excel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Map;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import com.google.common.collect.Maps;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Reads the first sheet of an <tt>.xlsx</tt> spreadsheet row by row, without
+ * building the workbook in memory.
+ *
+ * <p>
+ * The first row holds the names of the columns; every following row that is
+ * not empty is passed to the {@link ExcelRowHandler handler} as soon as it
+ * has been parsed.
+ */
+public final class ExcelRowReader {
+
+    private ExcelRowReader() {
+    }
+
+    public static void read(final InputStream inputStream, final ExcelRowHandler handler)
+            throws IOException, OpenXML4JException, SAXException {
+        final OPCPackage pkg = OPCPackage.open(inputStream);
+        try {
+            final XSSFReader reader = new XSSFReader(pkg);
+            final ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            final Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            final InputStream sheet = sheets.next();
+            try {
+                readSheet(sheet, sharedStrings, handler);
+            } finally {
+                sheet.close();
+            }
+        } finally {
+            pkg.revert();
+        }
+    }
+
+    static void readSheet(
+            final InputStream sheet,
+            final ReadOnlySharedStringsTable sharedStrings,
+            final ExcelRowHandler handler) throws IOException, SAXException {
+        try {
+            final SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.newSAXParser().parse(new InputSource(sheet), new SheetHandler(sharedStrings, handler));
+        } catch (ParserConfigurationException ex) {
+            throw new SAXException(ex);
+        }
+    }
+
+    /**
+     * The index of the column of a cell reference such as <tt>AB12</tt>,
+     * starting at 0.
+     */
+    static int columnIndex(final String cellReference) {
+        int index = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            final char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            index = index * 26 + (c - 'A' + 1);
+        }
+        return index - 1;
+    }
+
+    // //////////////////////////////////////
+
+    private static class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final ExcelRowHandler handler;
+
+        private final Map<Integer, String> columnsByIndex = Maps.newHashMap();
+        private Map<Integer, String> cells;
+        private int rowNumber;
+        private boolean headerRead;
+
+        private int columnIndex;
+        private String cellType;
+        private final StringBuilder text = new StringBuilder();
+        private boolean inText;
+
+        SheetHandler(final ReadOnlySharedStringsTable sharedStrings, final ExcelRowHandler handler) {
+            this.sharedStrings = sharedStrings;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
+            switch (localName) {
+            case "row":
+                final String r = attributes.getValue("r");
+                rowNumber = r == null ? rowNumber + 1 : Integer.parseInt(r);
+                cells = Maps.newHashMap();
+                columnIndex = -1;
+                break;
+            case "c":
+                final String reference = attributes.getValue("r");
+                columnIndex = reference == null ? columnIndex + 1 : columnIndex(reference);
+                cellType = attributes.getValue("t");
+                text.setLength(0);
+                break;
+            case "v":
+            case "t":
+                inText = true;
+                break;
+            default:
+                break;
+            }
+        }
+
+        @Override
+        public void characters(final char[] ch, final int start, final int length) {
+            if (inText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(final String uri, final String localName, final String qName) {
+            switch (localName) {
+            case "v":
+            case "t":
+                inText = false;
+                break;
+            case "c":
+                cells.put(columnIndex, cellValue());
+                break;
+            case "row":
+                endRow();
+                break;
+            default:
+                break;
+            }
+        }
+
+        private String cellValue() {
+            final String value = text.toString();
+            if (cellType == null) {
+                return value;
+            }
+            switch (cellType) {
+            case "s":
+                return value.isEmpty() ? null : sharedStrings.getEntryAt(Integer.parseInt(value));
+            case "b":
+                return "1".equals(value) ? "TRUE" : "FALSE";
+            case "e":
+                return null;
+            default:
+                return value;
+            }
+        }
+
+        private void endRow() {
+            if (!headerRead) {
+                for (Map.Entry<Integer, String> cell : cells.entrySet()) {
+                    columnsByIndex.put(cell.getKey(), ExcelRow.normalize(cell.getValue()));
+                }
+                headerRead = true;
+                return;
+            }
+            final Map<String, String> cellsByColumn = Maps.newHashMap();
+            for (Map.Entry<Integer, String> cell : cells.entrySet()) {
+                final String column = columnsByIndex.get(cell.getKey());
+                if (column != null && cell.getValue() != null && !cell.getValue().trim().isEmpty()) {
+                    cellsByColumn.put(column, cell.getValue());
+                }
+            }
+            if (!cellsByColumn.isEmpty()) {
+                handler.handle(new ExcelRow(rowNumber, cellsByColumn));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.excel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.joda.time.LocalDate;
+
+import org.apache.isis.applib.ApplicationException;
+import org.apache.isis.applib.value.Blob;
+
+/**
+ * Writes an <tt>.xlsx</tt> spreadsheet row by row, keeping only a small
+ * window of rows in memory; the counterpart of {@link ExcelRowReader}.
+ *
+ * <p>
+ * The first row holds the names of the columns. Close the writer to remove
+ * the temporary files of the rows written so far.
+ */
+public class ExcelRowWriter implements AutoCloseable {
+
+    public static final String MIME_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private static final int ROWS_IN_MEMORY = 100;
+
+    private final SXSSFWorkbook workbook;
+    private final Sheet sheet;
+    private final CellStyle dateStyle;
+    private int rowCount;
+
+    public ExcelRowWriter(final String sheetName, final String... columns) {
+        workbook = new SXSSFWorkbook(ROWS_IN_MEMORY);
+        sheet = workbook.createSheet(sheetName);
+        dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+        addRow((Object[]) columns);
+    }
+
+    /**
+     * Adds a row with a cell for each value, which is either a
+     * {@link String}, a {@link BigDecimal}, a {@link LocalDate} or
+     * <tt>null</tt>; anything else is written as its {@link Object#toString() string}.
+     */
+    public void addRow(final Object... values) {
+        final Row row = sheet.createRow(rowCount++);
+        for (int i = 0; i < values.length; i++) {
+            final Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            final Cell cell = row.createCell(i);
+            if (value instanceof BigDecimal) {
+                cell.setCellValue(((BigDecimal) value).doubleValue());
+            } else if (value instanceof LocalDate) {
+                cell.setCellValue(((LocalDate) value).toDate());
+                cell.setCellStyle(dateStyle);
+            } else {
+                cell.setCellValue(value.toString());
+            }
+        }
+    }
+
+    public Blob toBlob(final String fileName) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            workbook.write(bytes);
+        } catch (IOException ex) {
+            throw new ApplicationException(String.format("Could not write %s", fileName), ex);
+        }
+        return new Blob(fileName, MIME_TYPE, bytes.toByteArray());
+    }
+
+    @Override
+    public void close() {
+        workbook.dispose();
+    }
+
+}
@@ -161,11 +161,32 @@ public class Index
 
     // //////////////////////////////////////
 
+    @javax.jdo.annotations.NotPersistent
+    private IndexTimeSeries timeSeries;
+
+    /**
+     * All values of this index, loaded once with a single query.
+     */
+    @Programmatic
+    public IndexTimeSeries getTimeSeries() {
+        if (timeSeries == null) {
+            timeSeries = IndexTimeSeries.of(indexValues.findByIndex(this));
+        }
+        return timeSeries;
+    }
+
+    /**
+     * Called when an index value or index base is added, changed or removed.
+     */
+    @Programmatic
+    public void invalidateTimeSeries() {
+        timeSeries = null;
+    }
+
     @Programmatic
     public BigDecimal getIndexValueForDate(final LocalDate date) {
         if (date != null) {
-            IndexValue indexValue = indexValues.findIndexValueByIndexAndStartDate(this, date);
-            return indexValue == null ? null : indexValue.getValue();
+            return getTimeSeries().valueOn(date);
         }
         return null;
     }
@@ -175,14 +196,7 @@ public class Index
         if (baseIndexStartDate == null || nextIndexStartDate == null) {
             return null;
         }
-        IndexValue nextIndexValue = indexValues.findIndexValueByIndexAndStartDate(this, nextIndexStartDate);
-        // TODO: check efficiency.. seems to retrieve every single index value
-        // for the last 15 years...
-        if (nextIndexValue != null) {
-            final BigDecimal rebaseFactor = nextIndexValue.getIndexBase().factorForDate(baseIndexStartDate);
-            return rebaseFactor;
-        }
-        return null;
+        return getTimeSeries().rebaseFactor(baseIndexStartDate, nextIndexStartDate);
     }
 
     @Programmatic
@@ -63,6 +63,7 @@ public class IndexBases
         indexBase.setFactor(factor);
         indexBase.setIndex(index);
         persistIfNotAlready(indexBase);
+        index.invalidateTimeSeries();
         return indexBase;
     }
 
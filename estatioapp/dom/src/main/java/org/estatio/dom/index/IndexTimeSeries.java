@@ -0,0 +1,133 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.index;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.joda.time.LocalDate;
+
+/**
+ * An immutable, in-memory copy of the {@link IndexValue values} of an
+ * {@link Index}, together with the cumulative rebase factors of every
+ * {@link IndexBase}, so that indexation needs no further queries.
+ *
+ * <p>
+ * The rebase factors are the exact products of the factors of the bases
+ * between the two dates, so they are equal to those of
+ * {@link IndexBase#factorForDate(LocalDate)}.
+ */
+public final class IndexTimeSeries {
+
+    private final Map<LocalDate, BigDecimal> valuesByDate;
+    private final Map<LocalDate, RebaseFactors> rebaseFactorsByDate;
+
+    private IndexTimeSeries(
+            final Map<LocalDate, BigDecimal> valuesByDate,
+            final Map<LocalDate, RebaseFactors> rebaseFactorsByDate) {
+        this.valuesByDate = valuesByDate;
+        this.rebaseFactorsByDate = rebaseFactorsByDate;
+    }
+
+    public static IndexTimeSeries of(final List<IndexValue> indexValues) {
+        final Map<LocalDate, BigDecimal> valuesByDate = Maps.newHashMap();
+        final Map<LocalDate, RebaseFactors> rebaseFactorsByDate = Maps.newHashMap();
+        final Map<IndexBase, RebaseFactors> rebaseFactorsByBase = Maps.newHashMap();
+        for (IndexValue indexValue : indexValues) {
+            final LocalDate startDate = indexValue.getStartDate();
+            if (valuesByDate.containsKey(startDate)) {
+                continue;
+            }
+            valuesByDate.put(startDate, indexValue.getValue());
+            final IndexBase indexBase = indexValue.getIndexBase();
+            RebaseFactors rebaseFactors = rebaseFactorsByBase.get(indexBase);
+            if (rebaseFactors == null) {
+                rebaseFactors = RebaseFactors.of(indexBase);
+                rebaseFactorsByBase.put(indexBase, rebaseFactors);
+            }
+            rebaseFactorsByDate.put(startDate, rebaseFactors);
+        }
+        return new IndexTimeSeries(valuesByDate, rebaseFactorsByDate);
+    }
+
+    public BigDecimal valueOn(final LocalDate date) {
+        return date == null ? null : valuesByDate.get(date);
+    }
+
+    /**
+     * The factor to apply to the value on the base date to compare it with
+     * the value on the next date; <tt>null</tt> if there is no value on the
+     * next date.
+     */
+    public BigDecimal rebaseFactor(final LocalDate baseDate, final LocalDate nextDate) {
+        if (baseDate == null || nextDate == null) {
+            return null;
+        }
+        final RebaseFactors rebaseFactors = rebaseFactorsByDate.get(nextDate);
+        return rebaseFactors == null ? null : rebaseFactors.factorForDate(baseDate);
+    }
+
+    /**
+     * The start dates of an index base and all bases before it, latest
+     * first, with the product of the factors of the bases after each date.
+     */
+    static final class RebaseFactors {
+
+        private final LocalDate[] startDates;
+        private final BigDecimal[] factors;
+
+        private RebaseFactors(final LocalDate[] startDates, final BigDecimal[] factors) {
+            this.startDates = startDates;
+            this.factors = factors;
+        }
+
+        static RebaseFactors of(final IndexBase indexBase) {
+            final List<LocalDate> startDates = Lists.newArrayList();
+            final List<BigDecimal> factors = Lists.newArrayList();
+            BigDecimal factor = BigDecimal.ONE;
+            for (IndexBase base = indexBase; base != null; base = base.getPrevious()) {
+                startDates.add(base.getStartDate());
+                factors.add(factor);
+                if (base.getPrevious() != null) {
+                    factor = factor.multiply(base.getFactor());
+                }
+            }
+            return new RebaseFactors(
+                    startDates.toArray(new LocalDate[startDates.size()]),
+                    factors.toArray(new BigDecimal[factors.size()]));
+        }
+
+        /**
+         * <tt>null</tt> when the date is before the first base.
+         */
+        BigDecimal factorForDate(final LocalDate date) {
+            for (int i = 0; i < startDates.length; i++) {
+                if (!date.isBefore(startDates[i])) {
+                    return factors[i];
+                }
+            }
+            return null;
+        }
+    }
+
+}
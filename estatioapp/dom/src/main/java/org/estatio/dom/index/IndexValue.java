@@ -26,12 +26,13 @@ import org.isisaddons.module.security.dom.tenancy.ApplicationTenancy;
 import org.joda.time.LocalDate;
 import org.apache.isis.applib.Identifier;
 import org.apache.isis.applib.annotation.Action;
-import org.apache.isis.applib.annotation.PropertyLayout;
+import org.apache.isis.applib.annotation.Property;
 import org.apache.isis.applib.annotation.PropertyLayout;
 import org.apache.isis.applib.annotation.SemanticsOf;
 import org.apache.isis.applib.annotation.Title;
 import org.apache.isis.applib.annotation.Where;
 import org.apache.isis.applib.services.eventbus.ActionDomainEvent;
+import org.estatio.dom.EstatioDomainModule;
 import org.estatio.dom.EstatioDomainObject;
 import org.estatio.dom.WithStartDate;
 import org.estatio.dom.apptenancy.WithApplicationTenancyCountry;
@@ -55,6 +56,12 @@ import org.estatio.dom.apptenancy.WithApplicationTenancyCountry;
                         + "FROM org.estatio.dom.index.IndexValue "
                         + "WHERE indexBase.index == :index "
                         + "   && startDate == :startDate"),
+        @javax.jdo.annotations.Query(
+                name = "findByIndex", language = "JDOQL",
+                value = "SELECT "
+                        + "FROM org.estatio.dom.index.IndexValue "
+                        + "WHERE indexBase.index == :index "
+                        + "ORDER BY startDate DESC"),
         @javax.jdo.annotations.Query(
                 name = "findLastByIndex", language = "JDOQL",
                 value = "SELECT "
@@ -93,6 +100,7 @@ public class IndexValue
 
     @javax.jdo.annotations.Column(allowsNull = "false")
     @Title(sequence = "2", prepend = ":")
+    @Property(domainEvent = PropertyChangeEvent.class)
     @Override
     public LocalDate getStartDate() {
         return startDate;
@@ -139,6 +147,7 @@ public class IndexValue
     private BigDecimal value;
 
     @javax.jdo.annotations.Column(scale = VALUE_SCALE, allowsNull = "false")
+    @Property(domainEvent = PropertyChangeEvent.class)
     public BigDecimal getValue() {
         return value;
     }
@@ -168,4 +177,26 @@ public class IndexValue
 
     }
 
+    /**
+     * Posted when the start date or the value is edited.
+     */
+    public static class PropertyChangeEvent extends EstatioDomainModule.PropertyDomainEvent<IndexValue, Object> {
+        private static final long serialVersionUID = 1L;
+
+        public PropertyChangeEvent(
+                final IndexValue source,
+                final Identifier identifier) {
+            super(source, identifier);
+        }
+
+        public PropertyChangeEvent(
+                final IndexValue source,
+                final Identifier identifier,
+                final Object oldValue,
+                final Object newValue) {
+            super(source, identifier, oldValue, newValue);
+        }
+
+    }
+
 }
\ No newline at end of file
@@ -19,10 +19,13 @@
 package org.estatio.dom.index;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import javax.inject.Inject;
 
+import com.google.common.eventbus.Subscribe;
+
 import org.joda.time.LocalDate;
 
 import org.apache.isis.applib.annotation.Action;
@@ -33,6 +36,7 @@ import org.apache.isis.applib.annotation.NatureOfService;
 import org.apache.isis.applib.annotation.ParameterLayout;
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.applib.annotation.SemanticsOf;
+import org.apache.isis.applib.services.eventbus.AbstractDomainEvent;
 import org.apache.isis.applib.services.eventbus.EventBusService;
 import org.apache.isis.applib.services.queryresultscache.QueryResultsCache;
 
@@ -105,6 +109,11 @@ public class IndexValues
                 IndexValues.class, "findIndexValueByIndexAndStartDate", index, startDate);
     }
 
+    @Programmatic
+    public List<IndexValue> findByIndex(final Index index) {
+        return allMatches("findByIndex", "index", index);
+    }
+
     @Programmatic
     public IndexValue findLastByIndex(
             final Index index) {
@@ -114,6 +123,29 @@ public class IndexValues
 
     // //////////////////////////////////////
 
+    /**
+     * Invalidates the {@link Index#getTimeSeries() time series} of the index
+     * when one of its values is added, changed or removed.
+     */
+    @Programmatic
+    @Subscribe
+    public void on(final IndexValue.UpdateEvent ev) {
+        // not EXECUTED, the index value may have been removed by then
+        if (ev.getEventPhase() == null || ev.getEventPhase() == AbstractDomainEvent.Phase.EXECUTING) {
+            ev.getSource().getIndexBase().getIndex().invalidateTimeSeries();
+        }
+    }
+
+    @Programmatic
+    @Subscribe
+    public void on(final IndexValue.PropertyChangeEvent ev) {
+        if (ev.getEventPhase() == null || ev.getEventPhase() == AbstractDomainEvent.Phase.EXECUTED) {
+            ev.getSource().getIndexBase().getIndex().invalidateTimeSeries();
+        }
+    }
+
+    // //////////////////////////////////////
+
     @Inject
     IndexBases indexBases;
 
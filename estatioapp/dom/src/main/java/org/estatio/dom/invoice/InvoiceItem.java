@@ -377,7 +377,11 @@ public abstract class InvoiceItem
 
     @Action(invokeOn = InvokeOn.OBJECT_AND_COLLECTION)
     public InvoiceItem verify() {
-        calculateTax();
+        BigDecimal percentage = null;
+        if (getTax() != null) {
+            percentage = tax.percentageFor(getDueDate());
+        }
+        calculateTax(percentage);
         return this;
     }
 
@@ -391,12 +395,13 @@ public abstract class InvoiceItem
         }
     }
 
+    /**
+     * Calculates the vat and gross amounts with the percentage of the
+     * {@link #getTax() tax} on the {@link #getDueDate() due date}, when that
+     * is already known to the caller; {@link #verify()} looks it up.
+     */
     @Programmatic
-    private void calculateTax() {
-        BigDecimal percentage = null;
-        if (getTax() != null) {
-            percentage = tax.percentageFor(getDueDate());
-        }
+    public void calculateTax(final BigDecimal percentage) {
         setVatAmount(vatFromNet(getNetAmount(), percentage));
         setGrossAmount(grossFromNet(getNetAmount(), percentage));
     }
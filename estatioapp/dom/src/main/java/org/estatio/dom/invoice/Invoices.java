@@ -19,6 +19,8 @@
 package org.estatio.dom.invoice;
 
 import java.util.List;
+import java.util.Map;
+import com.google.common.collect.ImmutableMap;
 import org.isisaddons.module.security.app.user.MeService;
 import org.isisaddons.module.security.dom.tenancy.ApplicationTenancy;
 import org.joda.time.LocalDate;
@@ -42,6 +44,8 @@ import org.estatio.dom.apptenancy.ApplicationTenancyRepository;
 import org.estatio.dom.asset.FixedAsset;
 import org.estatio.dom.currency.Currency;
 import org.estatio.dom.lease.Lease;
+import org.estatio.dom.lease.invoicing.InvoiceBatch;
+import org.estatio.dom.lease.invoicing.LeaseInvoicingSnapshot;
 import org.estatio.dom.lease.invoicing.InvoiceCalculationParameters;
 import org.estatio.dom.party.Party;
 import org.estatio.dom.utils.StringUtils;
@@ -173,6 +177,20 @@ public class Invoices extends UdoDomainRepositoryAndFactory<Invoice> {
             final Lease lease,
             final String interactionId
     ) {
+        final Invoice invoice = createInvoice(applicationTenancy, seller, buyer, paymentMethod, currency, dueDate, lease, interactionId);
+        getContainer().flush();
+        return invoice;
+    }
+
+    private Invoice createInvoice(
+            final ApplicationTenancy applicationTenancy,
+            final Party seller,
+            final Party buyer,
+            final PaymentMethod paymentMethod,
+            final Currency currency,
+            final LocalDate dueDate,
+            final Lease lease,
+            final String interactionId) {
         Invoice invoice = newTransientInstance();
         invoice.setApplicationTenancyPath(applicationTenancy.getPath());
         invoice.setBuyer(buyer);
@@ -191,7 +209,6 @@ public class Invoices extends UdoDomainRepositoryAndFactory<Invoice> {
         invoice.setFixedAsset(lease.getProperty());
 
         persistIfNotAlready(invoice);
-        getContainer().flush();
         return invoice;
     }
 
@@ -209,6 +226,40 @@ public class Invoices extends UdoDomainRepositoryAndFactory<Invoice> {
                 applicationTenancy, seller, buyer, paymentMethod, lease, invoiceStatus, dueDate, interactionId);
     }
 
+    /**
+     * Variant of {@link #findOrCreateMatchingInvoice(ApplicationTenancy, PaymentMethod, Lease, InvoiceStatus, LocalDate, String)}
+     * that takes the parties from the snapshot of the lease, resolves the
+     * invoice from the batch and leaves flushing a newly created invoice to
+     * the caller.
+     */
+    @Programmatic
+    public Invoice findOrCreateMatchingInvoice(
+            final ApplicationTenancy applicationTenancy,
+            final PaymentMethod paymentMethod,
+            final LeaseInvoicingSnapshot snapshot,
+            final LocalDate dueDate,
+            final Currency currency,
+            final InvoiceBatch batch) {
+        Party buyer = snapshot.getBuyer();
+        Party seller = snapshot.getSeller();
+        Lease lease = snapshot.getLease();
+        Invoice invoice = batch.findInvoice(seller, buyer, paymentMethod, lease, dueDate);
+        if (invoice == null) {
+            invoice = createInvoice(applicationTenancy, seller, buyer, paymentMethod, currency, dueDate, lease, batch.getRunId());
+            batch.invoiceCreated(invoice);
+        }
+        return invoice;
+    }
+
+    @Programmatic
+    public InvoiceBatch newInvoiceBatch(
+            final FixedAsset fixedAsset,
+            final LocalDate dueDate,
+            final String runId,
+            final int flushSize) {
+        return new InvoiceBatch(runId, flushSize, findInvoices(fixedAsset, dueDate, InvoiceStatus.NEW));
+    }
+
     @Programmatic
     public Invoice findMatchingInvoice(
             final Party seller,
@@ -279,6 +330,41 @@ public class Invoices extends UdoDomainRepositoryAndFactory<Invoice> {
         }
     }
 
+    /**
+     * Removes the {@link InvoiceStatus#NEW new} invoices of the property and
+     * due date of the run, items first, each with a single set-based delete
+     * rather than object by object.
+     *
+     * <p>
+     * The delete bypasses {@link Invoice#doRemove()}, so the invoice items
+     * that are already loaded, for example by the lease terms they belong to,
+     * are not updated. Everything loaded is therefore evicted afterwards; the
+     * caller should also start a new transaction before calculating.
+     *
+     * @return the number of invoices and invoice items removed
+     */
+    @Programmatic
+    public long removeRunsInBulk(InvoiceCalculationParameters parameters) {
+        final Map<String, Object> args = ImmutableMap.<String, Object>of(
+                "fixedAsset", parameters.property(),
+                "dueDate", parameters.invoiceDueDate(),
+                "status", InvoiceStatus.NEW);
+        final long itemsRemoved = newQuery(
+                "SELECT FROM org.estatio.dom.invoice.InvoiceItem "
+                        + "WHERE invoice.fixedAsset == :fixedAsset "
+                        + "&& invoice.dueDate == :dueDate "
+                        + "&& invoice.status == :status")
+                .deletePersistentAll(args);
+        final long invoicesRemoved = newQuery(
+                "SELECT FROM org.estatio.dom.invoice.Invoice "
+                        + "WHERE fixedAsset == :fixedAsset "
+                        + "&& dueDate == :dueDate "
+                        + "&& status == :status")
+                .deletePersistentAll(args);
+        getIsisJdoSupport().getJdoPersistenceManager().evictAll();
+        return itemsRemoved + invoicesRemoved;
+    }
+
     // //////////////////////////////////////
 
     @javax.inject.Inject
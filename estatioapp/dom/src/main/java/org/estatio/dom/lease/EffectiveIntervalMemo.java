@@ -0,0 +1,73 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease;
+
+import com.google.common.base.Objects;
+
+import org.joda.time.LocalDate;
+
+import org.estatio.dom.valuetypes.LocalDateInterval;
+
+/**
+ * Remembers the effective interval of a lease, lease item or lease term
+ * together with the dates and the effective interval of the parent it was
+ * derived from.
+ *
+ * <p>
+ * The interval is reused for as long as those are the same, which is checked
+ * without allocating. As the parents return their remembered interval too, a
+ * change of dates anywhere up the chain results in a new parent interval and
+ * so invalidates the intervals below it.
+ */
+final class EffectiveIntervalMemo {
+
+    private boolean remembered;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDateInterval parentInterval;
+    private LocalDateInterval interval;
+
+    boolean isFor(
+            final LocalDate startDate,
+            final LocalDate endDate,
+            final LocalDateInterval parentInterval) {
+        return remembered
+                && this.parentInterval == parentInterval
+                && Objects.equal(this.startDate, startDate)
+                && Objects.equal(this.endDate, endDate);
+    }
+
+    LocalDateInterval interval() {
+        return interval;
+    }
+
+    LocalDateInterval remember(
+            final LocalDate startDate,
+            final LocalDate endDate,
+            final LocalDateInterval parentInterval,
+            final LocalDateInterval interval) {
+        this.remembered = true;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.parentInterval = parentInterval;
+        this.interval = interval;
+        return interval;
+    }
+
+}
@@ -101,6 +101,7 @@ public enum InvoicingFrequency {
         this.rrule = rrule;
         this.numerator = numerator;
         this.denominator = denominator;
+        this.annualMultiplier = numerator.divide(denominator, MathContext.DECIMAL64);
         this.paidIn = paidIn;
     }
 
@@ -108,6 +109,7 @@ public enum InvoicingFrequency {
     private final PaidIn paidIn;
     private final BigDecimal numerator;
     private final BigDecimal denominator;
+    private final BigDecimal annualMultiplier;
 
     private LocalDate dueDateOfInterval(final Interval interval) {
         if (interval == null) {
@@ -183,7 +185,7 @@ public enum InvoicingFrequency {
     }
 
     public BigDecimal annualMultiplier() {
-        return numerator.divide(denominator, MathContext.DECIMAL64);
+        return annualMultiplier;
     }
 
     public final static Ordering<InvoicingFrequency> ORDERING_BY_TYPE =
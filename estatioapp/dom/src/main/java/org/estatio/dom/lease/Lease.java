@@ -367,12 +367,18 @@ public class Lease
 
     // //////////////////////////////////////
 
+    @javax.jdo.annotations.NotPersistent
+    private final EffectiveIntervalMemo effectiveInterval = new EffectiveIntervalMemo();
+
     @Programmatic
     @Override
     public LocalDateInterval getEffectiveInterval() {
-        return new LocalDateInterval(
-                getTenancyStartDate() == null ? getStartDate() : getTenancyStartDate(),
-                getTenancyEndDate());
+        final LocalDate startDate = getTenancyStartDate() == null ? getStartDate() : getTenancyStartDate();
+        final LocalDate endDate = getTenancyEndDate();
+        if (effectiveInterval.isFor(startDate, endDate, null)) {
+            return effectiveInterval.interval();
+        }
+        return effectiveInterval.remember(startDate, endDate, null, new LocalDateInterval(startDate, endDate));
     }
 
     // //////////////////////////////////////
@@ -70,6 +70,7 @@ import org.estatio.dom.charge.Charge;
 import org.estatio.dom.charge.Charges;
 import org.estatio.dom.invoice.PaymentMethod;
 import org.estatio.dom.lease.invoicing.InvoiceCalculationService.CalculationResult;
+import org.estatio.dom.lease.invoicing.LeaseTermChanges;
 import org.estatio.dom.tax.Tax;
 import org.estatio.dom.valuetypes.LocalDateInterval;
 
@@ -427,10 +428,17 @@ public class LeaseItem
         return LocalDateInterval.including(getStartDate(), getEndDate());
     }
 
+    @javax.jdo.annotations.NotPersistent
+    private final EffectiveIntervalMemo effectiveInterval = new EffectiveIntervalMemo();
+
     @Programmatic
     @Override
     public LocalDateInterval getEffectiveInterval() {
-        return getInterval().overlap(getLease().getEffectiveInterval());
+        final LocalDateInterval parentInterval = getLease().getEffectiveInterval();
+        if (effectiveInterval.isFor(getStartDate(), getEndDate(), parentInterval)) {
+            return effectiveInterval.interval();
+        }
+        return effectiveInterval.remember(getStartDate(), getEndDate(), parentInterval, getInterval().overlap(parentInterval));
     }
 
     // //////////////////////////////////////
@@ -596,6 +604,18 @@ public class LeaseItem
 
     @Programmatic
     public LeaseTerm currentTerm(final LocalDate date) {
+        final LeaseTermIntervalIndex index = termIndex();
+        if (index.isUsable()) {
+            if (date == null) {
+                return null;
+            }
+            final LeaseTerm term = index.termOn(date);
+            if (term == null) {
+                return null;
+            }
+            final LocalDateInterval effectiveInterval = getEffectiveInterval();
+            return effectiveInterval != null && effectiveInterval.isValid() && effectiveInterval.contains(date) ? term : null;
+        }
         for (LeaseTerm term : getTerms()) {
             if (term.isActiveOn(date)) {
                 return term;
@@ -618,8 +638,31 @@ public class LeaseItem
         this.terms = terms;
     }
 
+    @javax.jdo.annotations.NotPersistent
+    private LeaseTermIntervalIndex termIndex;
+
+    private LeaseTermIntervalIndex termIndex() {
+        if (termIndex == null || !termIndex.isFor(getTerms())) {
+            termIndex = LeaseTermIntervalIndex.of(getTerms());
+        }
+        return termIndex;
+    }
+
+    /**
+     * Called when the dates of one of the terms are changed through its
+     * actions; terms added or removed are detected by the index itself.
+     */
+    @Programmatic
+    public void invalidateTermIndex() {
+        termIndex = null;
+    }
+
     @Programmatic
     public LeaseTerm findTerm(final LocalDate startDate) {
+        final LeaseTermIntervalIndex index = termIndex();
+        if (index.isUsable()) {
+            return index.termStartingOn(startDate);
+        }
         for (LeaseTerm term : getTerms()) {
             if (startDate.equals(term.getStartDate())) {
                 return term;
@@ -642,6 +685,7 @@ public class LeaseItem
         else {
 
             term = leaseTerms.newLeaseTerm(this, null, startDate, endDate);
+            leaseTermChanges.recordNew(term);
         }
         term.initialize();
         term.align();
@@ -683,6 +727,33 @@ public class LeaseItem
         return this;
     }
 
+    /**
+     * Whether {@link #verifyUntil(LocalDate) verifying} up to the date would
+     * neither create nor remove terms, that is when the last term starts
+     * within the item and already runs up to the date or to the end of the
+     * item. Note that the terms are then not aligned again either, see
+     * {@link Leases#verifyLeasesUntil(LeaseItemType, LocalDate, int)}.
+     */
+    @Programmatic
+    public boolean isVerifiedUntil(final LocalDate date) {
+        if (getTerms().isEmpty()) {
+            return true;
+        }
+        LocalDateInterval effectiveInterval = getEffectiveInterval();
+        LocalDate endDateExcluding = effectiveInterval == null ? null : effectiveInterval.endDateExcluding();
+        LeaseTerm lastTerm = getTerms().last();
+        if (endDateExcluding != null && lastTerm.getStartDate().compareTo(endDateExcluding) >= 0) {
+            return false;
+        }
+        LocalDate lastEndDateExcluding = lastTerm.getInterval().endDateExcluding();
+        if (lastEndDateExcluding == null) {
+            // an open ended term is followed by a new one when terms are created automatically
+            return !getType().autoCreateTerms();
+        }
+        LocalDate minDate = ObjectUtils.min(endDateExcluding, date);
+        return minDate != null && lastEndDateExcluding.compareTo(minDate) >= 0;
+    }
+
     // //////////////////////////////////////
 
     @Programmatic
@@ -767,6 +838,9 @@ public class LeaseItem
     @Inject
     LeaseTerms leaseTerms;
 
+    @Inject
+    LeaseTermChanges leaseTermChanges;
+
     @Inject
     ApplicationTenancyRepository applicationTenancyRepository;
 
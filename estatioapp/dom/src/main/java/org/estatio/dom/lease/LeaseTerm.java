@@ -29,10 +29,13 @@ import javax.jdo.annotations.IdentityType;
 import javax.jdo.annotations.InheritanceStrategy;
 import javax.jdo.annotations.Persistent;
 import javax.jdo.annotations.VersionStrategy;
+import com.google.common.collect.Lists;
+
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.isisaddons.module.security.dom.tenancy.ApplicationTenancy;
 import org.joda.time.LocalDate;
+import org.apache.isis.applib.Identifier;
 import org.apache.isis.applib.annotation.Action;
 import org.apache.isis.applib.annotation.BookmarkPolicy;
 import org.apache.isis.applib.annotation.CollectionLayout;
@@ -50,6 +53,7 @@ import org.apache.isis.applib.annotation.RenderType;
 import org.apache.isis.applib.annotation.RestrictTo;
 import org.apache.isis.applib.annotation.SemanticsOf;
 import org.apache.isis.applib.annotation.Where;
+import org.apache.isis.applib.services.eventbus.ActionDomainEvent;
 import org.apache.isis.applib.util.TitleBuffer;
 import org.estatio.app.security.EstatioRole;
 import org.estatio.dom.Chained;
@@ -64,6 +68,7 @@ import org.estatio.dom.lease.invoicing.InvoiceCalculationService;
 import org.estatio.dom.lease.invoicing.InvoiceCalculationService.CalculationResult;
 import org.estatio.dom.lease.invoicing.InvoiceItemForLease;
 import org.estatio.dom.lease.invoicing.InvoiceRunType;
+import org.estatio.dom.lease.invoicing.LeaseTermChanges;
 import org.estatio.dom.valuetypes.LocalDateInterval;
 
 @javax.jdo.annotations.PersistenceCapable(identityType = IdentityType.DATASTORE)
@@ -107,6 +112,20 @@ import org.estatio.dom.valuetypes.LocalDateInterval;
                         + "   && leaseItem.lease.occupancies.contains(lu) "
                         + "   && (lu.unit.property == :property) "
                         + "VARIABLES org.estatio.dom.lease.Occupancy lu"),
+        @javax.jdo.annotations.Query(
+                name = "findWithLeaseByPropertyAndTypeAndStartDate", language = "JDOQL",
+                value = "SELECT this, leaseItem, leaseItem.lease "
+                        + "FROM org.estatio.dom.lease.LeaseTerm "
+                        + "WHERE leaseItem.type == :leaseItemType "
+                        + "   && startDate == :startDate "
+                        + "   && leaseItem.lease.occupancies.contains(lu) "
+                        + "   && (lu.unit.property == :property) "
+                        + "VARIABLES org.estatio.dom.lease.Occupancy lu"),
+        @javax.jdo.annotations.Query(
+                name = "findByPreviousTerms", language = "JDOQL",
+                value = "SELECT "
+                        + "FROM org.estatio.dom.lease.LeaseTerm "
+                        + "WHERE :previousTerms.contains(previous)"),
         @javax.jdo.annotations.Query(
                 name = "findStartDatesByPropertyAndType", language = "JDOQL",
                 value = "SELECT DISTINCT startDate "
@@ -122,7 +141,14 @@ import org.estatio.dom.valuetypes.LocalDateInterval;
                         + "FROM org.estatio.dom.lease.LeaseTerm "
                         + "WHERE status == :status "
                         + "&& startDate <= :date "
-                        + "&& (endDate == null || endDate > :date )")
+                        + "&& (endDate == null || endDate > :date )"),
+        @javax.jdo.annotations.Query(
+                name = "findByTaxAndEndDateNotBefore", language = "JDOQL",
+                value = "SELECT "
+                        + "FROM org.estatio.dom.lease.LeaseTerm "
+                        + "WHERE (leaseItem.tax == :tax "
+                        + "   || (leaseItem.tax == null && leaseItem.charge.tax == :tax)) "
+                        + "&& (endDate == null || endDate >= :date)")
 })
 @DomainObjectLayout(bookmarking = BookmarkPolicy.AS_CHILD)
 @DomainObject(editing = Editing.DISABLED)
@@ -201,6 +227,7 @@ public abstract class LeaseTerm
     public void modifyStartDate(final LocalDate newStartDate) {
         if (ObjectUtils.notEqual(getStartDate(), newStartDate)) {
             setStartDate(newStartDate);
+            invalidateTermIndex();
             if (getPrevious() != null) {
                 getPrevious().align();
             }
@@ -224,6 +251,7 @@ public abstract class LeaseTerm
     public void modifyEndDate(final LocalDate newEndDate) {
         if (ObjectUtils.notEqual(getEndDate(), newEndDate)) {
             setEndDate(newEndDate);
+            invalidateTermIndex();
         }
     }
 
@@ -236,7 +264,7 @@ public abstract class LeaseTerm
     }
 
     @Override
-    @Action(semantics = SemanticsOf.IDEMPOTENT)
+    @Action(semantics = SemanticsOf.IDEMPOTENT, domainEvent = ChangeEvent.class)
     public LeaseTerm changeDates(
             final @ParameterLayout(named = "Start Date") @Parameter(optionality = Optionality.OPTIONAL) LocalDate newStartDate,
             final @ParameterLayout(named = "End Date") @Parameter(optionality = Optionality.OPTIONAL) LocalDate newEndDate) {
@@ -283,6 +311,17 @@ public abstract class LeaseTerm
         return null;
     }
 
+    /**
+     * Called by the actions and factories that change the dates of the term,
+     * not by its persistent setters, which DataNucleus may call while the
+     * term is being loaded.
+     */
+    private void invalidateTermIndex() {
+        if (getLeaseItem() != null) {
+            getLeaseItem().invalidateTermIndex();
+        }
+    }
+
     // //////////////////////////////////////
 
     @Property(hidden = Where.EVERYWHERE)
@@ -291,9 +330,16 @@ public abstract class LeaseTerm
         return LocalDateInterval.including(getStartDate(), getEndDate());
     }
 
+    @javax.jdo.annotations.NotPersistent
+    private final EffectiveIntervalMemo effectiveInterval = new EffectiveIntervalMemo();
+
     @Programmatic
     public LocalDateInterval getEffectiveInterval() {
-        return getInterval().overlap(getLeaseItem().getEffectiveInterval());
+        final LocalDateInterval parentInterval = getLeaseItem().getEffectiveInterval();
+        if (effectiveInterval.isFor(getStartDate(), getEndDate(), parentInterval)) {
+            return effectiveInterval.interval();
+        }
+        return effectiveInterval.remember(getStartDate(), getEndDate(), parentInterval, getInterval().overlap(parentInterval));
     }
 
     // //////////////////////////////////////
@@ -415,6 +461,7 @@ public abstract class LeaseTerm
                 getPrevious().setNext(null);
             }
             this.setPrevious(null);
+            leaseTermChanges.removeFor(this);
             getContainer().remove(this);
             getContainer().flush();
         }
@@ -430,8 +477,38 @@ public abstract class LeaseTerm
         return this;
     }
 
+    /**
+     * Aligns this term and the terms following it, creating the missing terms
+     * up to the date when the item creates its terms automatically.
+     *
+     * <p>
+     * Walks the chain of terms iteratively. The terms of the item are loaded
+     * up front, so that following the next terms does not load them one by
+     * one.
+     */
     @Action(semantics = SemanticsOf.IDEMPOTENT)
     public LeaseTerm verifyUntil(final LocalDate date) {
+        final LeaseItem leaseItem = getLeaseItem();
+        // loads the whole chain of terms with a single query
+        leaseItem.getTerms().size();
+        final List<LeaseTerm> termsCreated = Lists.newArrayList();
+        LeaseTerm term = this;
+        while (term != null) {
+            term = term.alignUntil(date, termsCreated);
+        }
+        if (!termsCreated.isEmpty()) {
+            // the terms created while verifying are flushed at once
+            terms.refreshTerms(leaseItem);
+        }
+        return this;
+    }
+
+    /**
+     * Aligns this term only, returns the next term to verify, if any. A next
+     * term created along the way is added to <tt>termsCreated</tt>, the terms
+     * of the item are not refreshed until the whole chain is verified.
+     */
+    private LeaseTerm alignUntil(final LocalDate date, final List<LeaseTerm> termsCreated) {
         LeaseTerm nextTerm = getNext();
         boolean autoCreateTerms = getLeaseItem().getType().autoCreateTerms();
         if (autoCreateTerms) {
@@ -440,7 +517,7 @@ public abstract class LeaseTerm
             LocalDate endDateExcluding = effectiveInterval != null ? effectiveInterval.endDateExcluding() : date;
             if (getNext() != null && endDateExcluding != null && getNext().getStartDate().compareTo(endDateExcluding) >= 0) {
                 getNext().doRemove();
-                return this;
+                return null;
             }
         }
         align();
@@ -453,13 +530,11 @@ public abstract class LeaseTerm
             if (nextTerm == null && nextStartDate.compareTo(minDate) < 0) {
                 LocalDate nextstartDate = default0CreateNext(null, null);
                 LocalDate nextEndDate = default1CreateNext(null, null);
-                nextTerm = createNext(nextstartDate, nextEndDate);
+                nextTerm = doCreateNext(nextstartDate, nextEndDate, false);
+                termsCreated.add(nextTerm);
             }
         }
-        if (nextTerm != null) {
-            nextTerm.verifyUntil(date);
-        }
-        return this;
+        return nextTerm;
     }
 
     protected LocalDate nextStartDate() {
@@ -479,7 +554,27 @@ public abstract class LeaseTerm
         if (nextTerm != null) {
             return nextTerm;
         }
-        nextTerm = terms.newLeaseTerm(getLeaseItem(), this, nextStartDate, nextEndDate);
+        nextTerm = doCreateNext(nextStartDate, nextEndDate, true);
+        leaseTermChanges.recordNew(nextTerm);
+        return nextTerm;
+    }
+
+    /**
+     * Creates the next term without journalling it: the terms that
+     * {@link #verifyUntil(LocalDate) verifying} creates are calculated by the
+     * invoice run that verifies them.
+     *
+     * @param refreshTerms
+     *            whether to refresh the terms of the item right away, rather
+     *            than once after creating a whole run of terms
+     */
+    private LeaseTerm doCreateNext(
+            final LocalDate nextStartDate,
+            final LocalDate nextEndDate,
+            final boolean refreshTerms) {
+        final LeaseTerm nextTerm = refreshTerms
+                ? terms.newLeaseTerm(getLeaseItem(), this, nextStartDate, nextEndDate)
+                : terms.newLeaseTermWithoutRefresh(getLeaseItem(), this, nextStartDate, nextEndDate);
         nextTerm.initialize();
         align();
         nextTerm.align();
@@ -540,6 +635,7 @@ public abstract class LeaseTerm
             }
         }
         doAlign();
+        invalidateCalculationResults();
     }
 
     /**
@@ -565,6 +661,7 @@ public abstract class LeaseTerm
     public void copyValuesTo(final LeaseTerm target) {
         target.setStartDate(getStartDate());
         target.setEndDate(getEndDate());
+        target.invalidateTermIndex();
         target.setStatus(getStatus());
         target.setFrequency(getFrequency());
     }
@@ -597,6 +694,17 @@ public abstract class LeaseTerm
     @Programmatic
     public abstract BigDecimal valueForDate(final LocalDate dueDate);
 
+    /**
+     * The state of the term that its calculation results depend on, part of
+     * the key of the results cached within a request. Subclasses add the
+     * values read by {@link #valueForDate(LocalDate)}, so that results are
+     * recalculated when these are set directly, for example by an import.
+     */
+    @Programmatic
+    public List<Object> calculationState() {
+        return Lists.<Object>newArrayList(getEffectiveInterval(), valueType());
+    }
+
     // //////////////////////////////////////
 
     @Action(restrictTo = RestrictTo.PROTOTYPING)
@@ -610,6 +718,23 @@ public abstract class LeaseTerm
 
     // //////////////////////////////////////
 
+    @javax.jdo.annotations.NotPersistent
+    private int calculationRevision;
+
+    /**
+     * Incremented whenever the term is aligned or changed, so that
+     * calculation results cached for an earlier state are not reused.
+     */
+    @Programmatic
+    public int getCalculationRevision() {
+        return calculationRevision;
+    }
+
+    @Programmatic
+    public void invalidateCalculationResults() {
+        calculationRevision++;
+    }
+
     @Programmatic
     public List<CalculationResult> calculationResults(
             final InvoicingFrequency invoicingFrequency,
@@ -657,4 +782,26 @@ public abstract class LeaseTerm
         this.terms = terms;
     }
 
+    private LeaseTermChanges leaseTermChanges;
+
+    public final void injectLeaseTermChanges(final LeaseTermChanges leaseTermChanges) {
+        this.leaseTermChanges = leaseTermChanges;
+    }
+
+    // //////////////////////////////////////
+
+    /**
+     * Posted by the actions that change the dates or the values of a term.
+     */
+    public static class ChangeEvent extends ActionDomainEvent<LeaseTerm> {
+        private static final long serialVersionUID = 1L;
+
+        public ChangeEvent(
+                final LeaseTerm source,
+                final Identifier identifier,
+                final Object... arguments) {
+            super(source, identifier, arguments);
+        }
+    }
+
 }
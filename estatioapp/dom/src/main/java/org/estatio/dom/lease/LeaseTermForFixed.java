@@ -19,11 +19,13 @@
 package org.estatio.dom.lease;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import javax.jdo.annotations.InheritanceStrategy;
 
 import org.joda.time.LocalDate;
 
+import org.apache.isis.applib.annotation.Action;
 import org.apache.isis.applib.annotation.Disabled;
 import org.apache.isis.applib.annotation.Named;
 import org.apache.isis.applib.annotation.Optional;
@@ -49,6 +51,7 @@ public class LeaseTermForFixed
         this.value = value;
     }
 
+    @Action(domainEvent = LeaseTerm.ChangeEvent.class)
     public LeaseTerm changeValue(
             final @Named("Value") BigDecimal value) {
         setValue(value);
@@ -81,6 +84,14 @@ public class LeaseTermForFixed
         return getValue();
     }
 
+    @Override
+    @Programmatic
+    public List<Object> calculationState() {
+        final List<Object> state = super.calculationState();
+        state.add(getValue());
+        return state;
+    }
+
     // //////////////////////////////////////
 
     @Override
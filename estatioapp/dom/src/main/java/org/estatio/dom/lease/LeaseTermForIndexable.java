@@ -26,6 +26,7 @@ import javax.jdo.annotations.InheritanceStrategy;
 
 import org.joda.time.LocalDate;
 
+import org.apache.isis.applib.annotation.Action;
 import org.apache.isis.applib.annotation.Optionality;
 import org.apache.isis.applib.annotation.Parameter;
 import org.apache.isis.applib.annotation.ParameterLayout;
@@ -46,7 +47,13 @@ import org.estatio.dom.utils.MathUtils;
                 value = "SELECT "
                         + "FROM org.estatio.dom.lease.LeaseTermForIndexable "
                         + "WHERE index == :index "
-                        + "   && (baseIndexStartDate == :date || nextIndexStartDate == :date) ")
+                        + "   && (baseIndexStartDate == :date || nextIndexStartDate == :date) "),
+        @javax.jdo.annotations.Query(
+                name = "findByIndexAndDates", language = "JDOQL",
+                value = "SELECT "
+                        + "FROM org.estatio.dom.lease.LeaseTermForIndexable "
+                        + "WHERE index == :index "
+                        + "   && (:dates.contains(baseIndexStartDate) || :dates.contains(nextIndexStartDate)) ")
 })
 public class LeaseTermForIndexable extends LeaseTerm implements Indexable {
 
@@ -160,6 +167,7 @@ public class LeaseTermForIndexable extends LeaseTerm implements Indexable {
 
     // //////////////////////////////////////
 
+    @Action(domainEvent = LeaseTerm.ChangeEvent.class)
     public LeaseTermForIndexable changeParameters(
             final IndexationMethod indexationMethod,
             final Index index,
@@ -295,6 +303,7 @@ public class LeaseTermForIndexable extends LeaseTerm implements Indexable {
 
     // //////////////////////////////////////
 
+    @Action(domainEvent = LeaseTerm.ChangeEvent.class)
     public LeaseTermForIndexable changeValues(
             final @ParameterLayout(named = "Base value") BigDecimal baseValue,
             final @ParameterLayout(named = "Settled value") @Parameter(optionality = Optionality.OPTIONAL) BigDecimal settledValue) {
@@ -362,6 +371,18 @@ public class LeaseTermForIndexable extends LeaseTerm implements Indexable {
         }
     }
 
+    /**
+     * Indexates this term again, without aligning it, for when a value of
+     * its index has changed.
+     */
+    @Programmatic
+    public void reindex() {
+        if (isIndexable()) {
+            indexationService.indexate(this);
+            invalidateCalculationResults();
+        }
+    }
+
     // //////////////////////////////////////
 
     @Override
@@ -394,6 +415,17 @@ public class LeaseTermForIndexable extends LeaseTerm implements Indexable {
         return MathUtils.firstNonZero(getBaseValue(), getSettledValue());
     }
 
+    @Override
+    @Programmatic
+    public List<Object> calculationState() {
+        final List<Object> state = super.calculationState();
+        state.add(getEffectiveDate());
+        state.add(getBaseValue());
+        state.add(getIndexedValue());
+        state.add(getSettledValue());
+        return state;
+    }
+
     // ///////////////////////////////////////////
 
     private Indices indices;
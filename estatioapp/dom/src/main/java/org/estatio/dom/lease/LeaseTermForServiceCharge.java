@@ -19,11 +19,13 @@
 package org.estatio.dom.lease;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import javax.jdo.annotations.InheritanceStrategy;
 
 import org.joda.time.LocalDate;
 
+import org.apache.isis.applib.annotation.Action;
 import org.apache.isis.applib.annotation.Immutable;
 import org.apache.isis.applib.annotation.Named;
 import org.apache.isis.applib.annotation.Optional;
@@ -64,6 +66,7 @@ public class LeaseTermForServiceCharge extends LeaseTerm {
 
     // //////////////////////////////////////
 
+    @Action(domainEvent = LeaseTerm.ChangeEvent.class)
     public LeaseTermForServiceCharge changeValues(
             final @Named("Budgeted value") @Optional BigDecimal budgetedValue,
             final @Named("Audited value") @Optional BigDecimal auditedValue) {
@@ -103,6 +106,15 @@ public class LeaseTermForServiceCharge extends LeaseTerm {
         return getBudgetedValue();
     }
 
+    @Override
+    @Programmatic
+    public List<Object> calculationState() {
+        final List<Object> state = super.calculationState();
+        state.add(getBudgetedValue());
+        state.add(getAuditedValue());
+        return state;
+    }
+
     // //////////////////////////////////////
 
     @Override
@@ -2,6 +2,7 @@ package org.estatio.dom.lease;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.List;
 
 import javax.inject.Inject;
 import javax.jdo.annotations.Column;
@@ -92,6 +93,7 @@ public class LeaseTermForTax extends LeaseTerm {
         this.overridePayableValue = overridePayableValue;
     }
 
+    @Action(domainEvent = LeaseTerm.ChangeEvent.class)
     public LeaseTermForTax changeTax(
             final @ParameterLayout(named = "Tax percentage") BigDecimal taxPercentage,
             final @ParameterLayout(named = "Override payable value") @Parameter(optionality = Optionality.OPTIONAL) BigDecimal overridePayableValue) {
@@ -336,6 +338,15 @@ public class LeaseTermForTax extends LeaseTerm {
         return getTaxValue();
     }
 
+    @Override
+    @Programmatic
+    public List<Object> calculationState() {
+        final List<Object> state = super.calculationState();
+        state.add(isInvoicingDisabled());
+        state.add(getTaxValue());
+        return state;
+    }
+
     @Override
     public LeaseTermValueType valueType() {
         return LeaseTermValueType.FIXED;
@@ -29,6 +29,7 @@ import com.google.common.base.Strings;
 import org.apache.commons.lang3.ObjectUtils;
 import org.joda.time.LocalDate;
 
+import org.apache.isis.applib.annotation.Action;
 import org.apache.isis.applib.annotation.Disabled;
 import org.apache.isis.applib.annotation.Named;
 import org.apache.isis.applib.annotation.Optional;
@@ -79,6 +80,7 @@ public class LeaseTermForTurnoverRent extends LeaseTerm {
         this.auditedTurnover = auditedTurnover;
     }
 
+    @Action(domainEvent = LeaseTerm.ChangeEvent.class)
     public LeaseTermForTurnoverRent changeParameters(
             final @Named("Turnover rent rule") @Optional String newTurnoverRentRule,
             final @Named("Total budgeted rent") @Optional BigDecimal newTotalBudgetedRent, 
@@ -172,6 +174,15 @@ public class LeaseTermForTurnoverRent extends LeaseTerm {
                 BigDecimal.ZERO);
     }
 
+    @Override
+    @Programmatic
+    public List<Object> calculationState() {
+        final List<Object> state = super.calculationState();
+        state.add(getBudgetedTurnoverRent());
+        state.add(getAuditedTurnoverRent());
+        return state;
+    }
+
     @Override
     public BigDecimal getEffectiveValue() {
         return valueForDate(null);
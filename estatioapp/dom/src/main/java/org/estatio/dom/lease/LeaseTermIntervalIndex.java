@@ -0,0 +1,117 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease;
+
+import java.util.SortedSet;
+
+import org.joda.time.LocalDate;
+
+/**
+ * The terms of a {@link LeaseItem} as arrays sorted by start date, so that
+ * the term on or starting on a date can be found with a binary search.
+ *
+ * <p>
+ * Only usable when the terms follow each other without overlapping, every
+ * term having a start date and only the last one being open ended. Otherwise
+ * the index is not {@link #isUsable() usable} and the caller has to scan the
+ * terms.
+ */
+final class LeaseTermIntervalIndex {
+
+    private final SortedSet<LeaseTerm> terms;
+    private final int size;
+
+    private final LeaseTerm[] sortedTerms;
+    private final LocalDate[] startDates;
+    private final LocalDate[] endDates;
+    private final boolean usable;
+
+    private LeaseTermIntervalIndex(final SortedSet<LeaseTerm> terms) {
+        this.terms = terms;
+        this.size = terms.size();
+        this.sortedTerms = new LeaseTerm[size];
+        this.startDates = new LocalDate[size];
+        this.endDates = new LocalDate[size];
+        boolean usable = true;
+        int i = 0;
+        for (LeaseTerm term : terms) {
+            final LocalDate startDate = term.getStartDate();
+            final LocalDate endDate = term.getEndDate();
+            if (startDate == null
+                    || endDate != null && endDate.isBefore(startDate)
+                    || i > 0 && (endDates[i - 1] == null || !endDates[i - 1].isBefore(startDate))) {
+                usable = false;
+                break;
+            }
+            sortedTerms[i] = term;
+            startDates[i] = startDate;
+            endDates[i] = endDate;
+            i++;
+        }
+        this.usable = usable;
+    }
+
+    static LeaseTermIntervalIndex of(final SortedSet<LeaseTerm> terms) {
+        return new LeaseTermIntervalIndex(terms);
+    }
+
+    /**
+     * Whether this index still reflects the terms; changes to the dates of
+     * the terms are signalled by {@link LeaseItem#invalidateTermIndex()}.
+     */
+    boolean isFor(final SortedSet<LeaseTerm> terms) {
+        return this.terms == terms && this.size == terms.size();
+    }
+
+    boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * The term whose interval contains the date, ignoring the interval of
+     * the item.
+     */
+    LeaseTerm termOn(final LocalDate date) {
+        final int i = lastStartingOnOrBefore(date);
+        if (i < 0) {
+            return null;
+        }
+        return endDates[i] == null || !endDates[i].isBefore(date) ? sortedTerms[i] : null;
+    }
+
+    LeaseTerm termStartingOn(final LocalDate startDate) {
+        final int i = lastStartingOnOrBefore(startDate);
+        return i >= 0 && startDates[i].isEqual(startDate) ? sortedTerms[i] : null;
+    }
+
+    private int lastStartingOnOrBefore(final LocalDate date) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (startDates[mid].isAfter(date)) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return high;
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * The indexed values changed by re-indexing lease terms in chunks, see
+ * {@link LeaseTermsForIndexable#reindex(org.estatio.dom.index.Index, java.util.Collection, int)}.
+ */
+public class LeaseTermReindexation {
+
+    private final int termsTotal;
+    private final int chunksTotal;
+
+    private int termsReindexed;
+    private int chunksCommitted;
+    private final List<Change> changes = Lists.newArrayList();
+
+    public LeaseTermReindexation(
+            final int termsTotal,
+            final int chunksTotal) {
+        this.termsTotal = termsTotal;
+        this.chunksTotal = chunksTotal;
+    }
+
+    public int getTermsTotal() {
+        return termsTotal;
+    }
+
+    public int getTermsReindexed() {
+        return termsReindexed;
+    }
+
+    public int getChunksTotal() {
+        return chunksTotal;
+    }
+
+    public int getChunksCommitted() {
+        return chunksCommitted;
+    }
+
+    /**
+     * The terms of which the indexed value changed.
+     */
+    public List<Change> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    // //////////////////////////////////////
+
+    void termReindexed(final LeaseTermForIndexable term, final BigDecimal previousIndexedValue) {
+        termsReindexed++;
+        final BigDecimal indexedValue = term.getIndexedValue();
+        if (previousIndexedValue == null
+                ? indexedValue != null
+                : indexedValue == null || previousIndexedValue.compareTo(indexedValue) != 0) {
+            changes.add(new Change(term, previousIndexedValue, indexedValue));
+        }
+    }
+
+    void chunkCommitted() {
+        chunksCommitted++;
+    }
+
+    // //////////////////////////////////////
+
+    public static class Change {
+
+        private final LeaseTermForIndexable term;
+        private final BigDecimal previousIndexedValue;
+        private final BigDecimal indexedValue;
+
+        Change(
+                final LeaseTermForIndexable term,
+                final BigDecimal previousIndexedValue,
+                final BigDecimal indexedValue) {
+            this.term = term;
+            this.previousIndexedValue = previousIndexedValue;
+            this.indexedValue = indexedValue;
+        }
+
+        public LeaseTermForIndexable getTerm() {
+            return term;
+        }
+
+        public BigDecimal getPreviousIndexedValue() {
+            return previousIndexedValue;
+        }
+
+        public BigDecimal getIndexedValue() {
+            return indexedValue;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s -> %s", term.getLeaseItem().getLease().getReference(), previousIndexedValue, indexedValue);
+        }
+    }
+
+    // //////////////////////////////////////
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d of %d terms reindexed, %d indexed values changed%s",
+                termsReindexed, termsTotal, changes.size(),
+                changes.isEmpty() ? "" : " " + changes);
+    }
+
+}
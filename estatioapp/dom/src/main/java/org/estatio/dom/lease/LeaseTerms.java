@@ -35,6 +35,7 @@ import org.apache.isis.applib.annotation.Where;
 import org.estatio.dom.UdoDomainRepositoryAndFactory;
 import org.estatio.dom.EstatioUserRoles;
 import org.estatio.dom.asset.Property;
+import org.estatio.dom.tax.Tax;
 import org.estatio.dom.valuetypes.LocalDateInterval;
 
 @DomainService(menuOrder = "40", repositoryFor = LeaseTerm.class)
@@ -50,6 +51,22 @@ public class LeaseTerms extends UdoDomainRepositoryAndFactory<LeaseTerm> {
             final LeaseTerm previous,
             final LocalDate startDate,
             final LocalDate endDate) {
+        final LeaseTerm leaseTerm = newLeaseTermWithoutRefresh(leaseItem, previous, startDate, endDate);
+        refreshTerms(leaseItem);
+        return leaseTerm;
+    }
+
+    /**
+     * Creates and persists a term without flushing it and refreshing the terms
+     * of the item, so that a run of new terms is flushed at once by a single
+     * {@link #refreshTerms(LeaseItem)} afterwards.
+     */
+    @Programmatic
+    public LeaseTerm newLeaseTermWithoutRefresh(
+            final LeaseItem leaseItem,
+            final LeaseTerm previous,
+            final LocalDate startDate,
+            final LocalDate endDate) {
         LeaseTerm leaseTerm = leaseItem.getType().create(getContainer());
         leaseTerm.setLeaseItem(leaseItem);
         leaseTerm.modifyStartDate(startDate);
@@ -63,12 +80,16 @@ public class LeaseTerms extends UdoDomainRepositoryAndFactory<LeaseTerm> {
         if (previous != null) {
             previous.setNext(leaseTerm);
         }
+        return leaseTerm;
+    }
+
+    @Programmatic
+    public void refreshTerms(final LeaseItem leaseItem) {
         // TOFIX: without this flush and refresh, the collection of terms on the
         // item is not updated. Removing code below will fail integration tests
         // too.
         getContainer().flush();
         getIsisJdoSupport().refresh(leaseItem);
-        return leaseTerm;
     }
 
     @Deprecated
@@ -114,6 +135,39 @@ public class LeaseTerms extends UdoDomainRepositoryAndFactory<LeaseTerm> {
                 "startDate", startDate);
     }
 
+    /**
+     * Returns the same terms as {@link #findByPropertyAndTypeAndStartDate(Property, LeaseItemType, LocalDate)},
+     * loading their items and leases with the same query, so that their
+     * titles can be rendered without a query per term.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Programmatic
+    public List<LeaseTerm> findWithLeaseByPropertyAndTypeAndStartDate(
+            final Property property,
+            final LeaseItemType leaseItemType,
+            final LocalDate startDate) {
+        final List rows = allMatches("findWithLeaseByPropertyAndTypeAndStartDate",
+                "property", property,
+                "leaseItemType", leaseItemType,
+                "startDate", startDate);
+        final List<LeaseTerm> leaseTerms = new ArrayList<LeaseTerm>(rows.size());
+        for (Object[] row : (List<Object[]>) rows) {
+            leaseTerms.add((LeaseTerm) row[0]);
+        }
+        return leaseTerms;
+    }
+
+    /**
+     * Loads the next terms of the given terms with a single query.
+     */
+    @Programmatic
+    public List<LeaseTerm> findByPreviousTerms(final List<? extends LeaseTerm> previousTerms) {
+        if (previousTerms.isEmpty()) {
+            return new ArrayList<LeaseTerm>();
+        }
+        return allMatches("findByPreviousTerms", "previousTerms", previousTerms);
+    }
+
     @SuppressWarnings({ "unchecked", "rawtypes" })
     @Action(semantics = SemanticsOf.SAFE, hidden = Where.EVERYWHERE)
     public List<LeaseTermForServiceCharge> findServiceChargeByPropertyAndStartDate(
@@ -123,6 +177,15 @@ public class LeaseTerms extends UdoDomainRepositoryAndFactory<LeaseTerm> {
         return leaseTerms;
     }
 
+    /**
+     * Returns the terms whose (effective) tax is the given tax and that have
+     * not ended before the given date.
+     */
+    @Programmatic
+    public List<LeaseTerm> findByTaxAndEndDateNotBefore(final Tax tax, final LocalDate date) {
+        return allMatches("findByTaxAndEndDateNotBefore", "tax", tax, "date", date);
+    }
+
     // //////////////////////////////////////
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
@@ -189,4 +252,5 @@ public class LeaseTerms extends UdoDomainRepositoryAndFactory<LeaseTerm> {
         }
         return null;
     }
+
 }
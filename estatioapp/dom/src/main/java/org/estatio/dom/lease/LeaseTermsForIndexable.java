@@ -18,8 +18,18 @@
  */
 package org.estatio.dom.lease;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
+import javax.inject.Inject;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.common.eventbus.Subscribe;
 
 import org.joda.time.LocalDate;
@@ -27,6 +37,7 @@ import org.joda.time.LocalDate;
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.NatureOfService;
 import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.xactn.TransactionService;
 
 import org.estatio.dom.UdoDomainRepositoryAndFactory;
 import org.estatio.dom.index.Index;
@@ -45,14 +56,106 @@ public class LeaseTermsForIndexable extends UdoDomainRepositoryAndFactory<LeaseT
         return allMatches("findByIndexAndDate", "index", index, "date", date);
     }
 
+    @Programmatic
+    public List<LeaseTermForIndexable> findByIndexAndDates(final Index index, final Collection<LocalDate> dates) {
+        return allMatches("findByIndexAndDates", "index", index, "dates", dates);
+    }
+
+    /**
+     * The terms of the index by their base and next index start dates, those
+     * of the given dates only, loaded with a single query.
+     */
+    @Programmatic
+    public ListMultimap<LocalDate, LeaseTermForIndexable> findByIndexGroupedByDate(
+            final Index index,
+            final Collection<LocalDate> dates) {
+        return groupByDate(findByIndexAndDates(index, dates), dates);
+    }
+
+    static ListMultimap<LocalDate, LeaseTermForIndexable> groupByDate(
+            final List<LeaseTermForIndexable> terms,
+            final Collection<LocalDate> dates) {
+        final ListMultimap<LocalDate, LeaseTermForIndexable> termsByDate = ArrayListMultimap.create();
+        for (LeaseTermForIndexable term : terms) {
+            if (dates.contains(term.getBaseIndexStartDate())) {
+                termsByDate.put(term.getBaseIndexStartDate(), term);
+            }
+            if (dates.contains(term.getNextIndexStartDate())
+                    && !Objects.equal(term.getNextIndexStartDate(), term.getBaseIndexStartDate())) {
+                termsByDate.put(term.getNextIndexStartDate(), term);
+            }
+        }
+        return termsByDate;
+    }
+
+    // //////////////////////////////////////
+
+    /**
+     * Number of terms reindexed and committed per transaction by
+     * {@link #reindex(Index, Collection, int)}.
+     */
+    public static final int DEFAULT_REINDEX_CHUNK_SIZE = 200;
+
+    /**
+     * Indexates the terms that use a value of the index on one of the dates
+     * again, in the current transaction.
+     */
+    @Programmatic
+    public LeaseTermReindexation reindex(final Index index, final Collection<LocalDate> dates) {
+        return reindex(index, dates, 0);
+    }
+
+    /**
+     * Indexates the terms that use a value of the index on one of the dates
+     * again, committing every chunk of <tt>chunkSize</tt> terms in its own
+     * transaction; all in the current transaction if <tt>chunkSize</tt> is
+     * <tt>0</tt>.
+     */
+    @Programmatic
+    public LeaseTermReindexation reindex(final Index index, final Collection<LocalDate> dates, final int chunkSize) {
+        final List<LeaseTermForIndexable> terms =
+                Lists.newArrayList(Sets.newLinkedHashSet(findByIndexGroupedByDate(index, dates).values()));
+        final List<List<LeaseTermForIndexable>> chunks =
+                chunkSize > 0 ? Lists.partition(terms, chunkSize) : Collections.singletonList(terms);
+        final LeaseTermReindexation reindexation = new LeaseTermReindexation(terms.size(), chunks.size());
+        for (List<LeaseTermForIndexable> chunk : chunks) {
+            for (LeaseTermForIndexable term : chunk) {
+                final BigDecimal previousIndexedValue = term.getIndexedValue();
+                term.reindex();
+                reindexation.termReindexed(term, previousIndexedValue);
+            }
+            if (chunkSize > 0) {
+                transactionService.nextTransaction();
+                reindexation.chunkCommitted();
+            }
+        }
+        return reindexation;
+    }
+
     // //////////////////////////////////////
 
+    /**
+     * Reindexes the terms when a value is created or changed (the event is
+     * then posted without a phase), and reports the changed indexed values.
+     * Removed values are handled by verifying the leases.
+     */
     @Programmatic
     @Subscribe
     public void on(final IndexValue.UpdateEvent ev) {
-        for (LeaseTermForIndexable term : findByIndexAndDate(ev.getSource().getIndexBase().getIndex(), ev.getSource().getStartDate())) {
-            term.verify();
+        if (ev.getEventPhase() != null) {
+            return;
+        }
+        final IndexValue indexValue = ev.getSource();
+        final LeaseTermReindexation reindexation =
+                reindex(indexValue.getIndexBase().getIndex(), Collections.singleton(indexValue.getStartDate()));
+        if (!reindexation.getChanges().isEmpty()) {
+            getContainer().informUser(reindexation.toString());
         }
     }
 
+    // //////////////////////////////////////
+
+    @Inject
+    private TransactionService transactionService;
+
 }
@@ -0,0 +1,115 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease;
+
+/**
+ * Tracks the progress of verifying leases in chunks, see
+ * {@link Leases#verifyLeasesUntil(LeaseItemType, org.joda.time.LocalDate, int)}.
+ *
+ * <p>
+ * Every chunk is committed in its own transaction. Leases whose terms are
+ * already verified up to the date are skipped, so a failed verification can
+ * simply be started again.
+ */
+public class LeaseVerificationProgress {
+
+    private final int leasesTotal;
+    private final int chunksTotal;
+
+    private int leasesVerified;
+    private int leasesSkipped;
+    private int termsCreated;
+    private int chunksCommitted;
+    private String failure;
+
+    public LeaseVerificationProgress(
+            final int leasesTotal,
+            final int chunksTotal) {
+        this.leasesTotal = leasesTotal;
+        this.chunksTotal = chunksTotal;
+    }
+
+    public int getLeasesTotal() {
+        return leasesTotal;
+    }
+
+    public int getChunksTotal() {
+        return chunksTotal;
+    }
+
+    public int getLeasesVerified() {
+        return leasesVerified;
+    }
+
+    /**
+     * Leases whose terms were already verified up to the date.
+     */
+    public int getLeasesSkipped() {
+        return leasesSkipped;
+    }
+
+    public int getTermsCreated() {
+        return termsCreated;
+    }
+
+    public int getChunksCommitted() {
+        return chunksCommitted;
+    }
+
+    /**
+     * The lease that failed and the reason, if any.
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    public boolean isCompleted() {
+        return chunksCommitted == chunksTotal;
+    }
+
+    // //////////////////////////////////////
+
+    void leaseVerified(final int termsCreated) {
+        this.leasesVerified++;
+        this.termsCreated += termsCreated;
+    }
+
+    void leaseSkipped() {
+        leasesSkipped++;
+    }
+
+    void chunkCommitted() {
+        chunksCommitted++;
+    }
+
+    void failed(final Lease lease, final Exception ex) {
+        this.failure = String.format("%s: %s", lease.getReference(), ex.getMessage());
+    }
+
+    // //////////////////////////////////////
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d of %d chunks committed, %d of %d leases verified, %d skipped, %d terms created%s",
+                chunksCommitted, chunksTotal, leasesVerified, leasesTotal, leasesSkipped, termsCreated,
+                failure == null ? "" : ", failed " + failure);
+    }
+
+}
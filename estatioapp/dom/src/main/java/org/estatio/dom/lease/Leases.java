@@ -30,6 +30,7 @@ import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
 import org.joda.time.Period;
 
+import org.apache.isis.applib.ApplicationException;
 import org.apache.isis.applib.annotation.Action;
 import org.apache.isis.applib.annotation.ActionLayout;
 import org.apache.isis.applib.annotation.DomainService;
@@ -44,6 +45,7 @@ import org.apache.isis.applib.annotation.RestrictTo;
 import org.apache.isis.applib.annotation.SemanticsOf;
 import org.apache.isis.applib.annotation.Where;
 import org.apache.isis.applib.services.clock.ClockService;
+import org.apache.isis.applib.services.xactn.TransactionService;
 
 import org.estatio.dom.RegexValidation;
 import org.estatio.dom.UdoDomainRepositoryAndFactory;
@@ -57,6 +59,8 @@ import org.estatio.dom.apptenancy.ApplicationTenancyRepository;
 import org.estatio.dom.asset.FixedAsset;
 import org.estatio.dom.asset.FixedAssetRepository;
 import org.estatio.dom.asset.Property;
+import org.estatio.dom.lease.invoicing.LeaseTermChangeSet;
+import org.estatio.dom.lease.invoicing.LeaseTermChanges;
 import org.estatio.dom.lease.tags.Brand;
 import org.estatio.dom.party.Party;
 import org.estatio.dom.utils.JodaPeriodUtils;
@@ -220,22 +224,82 @@ public class Leases extends UdoDomainRepositoryAndFactory<Lease> {
 
     // //////////////////////////////////////
 
+    /**
+     * Number of leases verified and committed per transaction by
+     * {@link #verifyLeasesUntil(LeaseItemType, LocalDate)}.
+     */
+    public static final int DEFAULT_VERIFY_CHUNK_SIZE = 50;
+
     @Action(semantics = SemanticsOf.IDEMPOTENT)
     @MemberOrder(sequence = "4")
     public String verifyLeasesUntil(
             final LeaseItemType leaseItemType,
             final @ParameterLayout(named = "Until date") LocalDate untilDate) {
         DateTime start = DateTime.now();
-        List<Lease> leases = allLeases();
-        for (Lease lease : leases) {
-            for (LeaseItem leaseItem : lease.getItems()) {
-                if (leaseItem.getType().equals(leaseItemType)) {
-                    leaseItem.verifyUntil(untilDate);
+        LeaseVerificationProgress progress = verifyLeasesUntil(leaseItemType, untilDate, DEFAULT_VERIFY_CHUNK_SIZE);
+        Period p = new Period(start, DateTime.now());
+        return String.format("Verified leases in %s: %s", JodaPeriodUtils.asString(p), progress);
+    }
+
+    /**
+     * Verifies the items of the given type of all leases, committing every
+     * chunk of <tt>chunkSize</tt> leases in its own transaction.
+     *
+     * <p>
+     * Leases of which all items are already {@link LeaseItem#isVerifiedUntil(LocalDate) verified}
+     * up to the date are skipped, unless terms of the lease are in the
+     * {@link LeaseTermChanges journal of changed terms} and so need to be
+     * aligned again.
+     */
+    @Programmatic
+    public LeaseVerificationProgress verifyLeasesUntil(
+            final LeaseItemType leaseItemType,
+            final LocalDate untilDate,
+            final int chunkSize) {
+        final List<Lease> leases = allLeases();
+        final List<List<Lease>> chunks = Lists.partition(leases, chunkSize);
+        final LeaseVerificationProgress progress = new LeaseVerificationProgress(leases.size(), chunks.size());
+        for (List<Lease> chunk : chunks) {
+            final LeaseTermChangeSet changeSet = leaseTermChanges.changeSetFor(chunk);
+            for (Lease lease : chunk) {
+                try {
+                    verifyUntil(lease, leaseItemType, untilDate, changeSet.contains(lease), progress);
+                } catch (RuntimeException ex) {
+                    progress.failed(lease, ex);
+                    throw new ApplicationException(
+                            String.format("Chunk %d failed, verify again to continue. %s", progress.getChunksCommitted() + 1, progress),
+                            ex);
                 }
             }
+            transactionService.nextTransaction();
+            progress.chunkCommitted();
         }
-        Period p = new Period(start, DateTime.now());
-        return String.format("Verified %d leases in %s", leases.size(), JodaPeriodUtils.asString(p));
+        return progress;
+    }
+
+    private void verifyUntil(
+            final Lease lease,
+            final LeaseItemType leaseItemType,
+            final LocalDate untilDate,
+            final boolean changed,
+            final LeaseVerificationProgress progress) {
+        final List<LeaseItem> leaseItems = Lists.newArrayList();
+        for (LeaseItem leaseItem : lease.getItems()) {
+            if (leaseItem.getType().equals(leaseItemType) && (changed || !leaseItem.isVerifiedUntil(untilDate))) {
+                leaseItems.add(leaseItem);
+            }
+        }
+        if (leaseItems.isEmpty()) {
+            progress.leaseSkipped();
+            return;
+        }
+        int termsCreated = 0;
+        for (LeaseItem leaseItem : leaseItems) {
+            final int terms = leaseItem.getTerms().size();
+            leaseItem.verifyUntil(untilDate);
+            termsCreated += leaseItem.getTerms().size() - terms;
+        }
+        progress.leaseVerified(termsCreated);
     }
 
     // //////////////////////////////////////
@@ -333,8 +397,14 @@ public class Leases extends UdoDomainRepositoryAndFactory<Lease> {
 
     @Inject 
     ClockService clockService;
+
+    @Inject
+    private TransactionService transactionService;
 	
     @Inject
     private ApplicationTenancyRepository applicationTenancyRepository;
 
+    @Inject
+    private LeaseTermChanges leaseTermChanges;
+
 }
@@ -18,6 +18,7 @@
  */
 package org.estatio.dom.lease.contributed;
 
+import java.util.Collections;
 import java.util.List;
 
 import javax.inject.Inject;
@@ -47,6 +48,15 @@ public class LeaseTermForIndexableContributions extends UdoDomainService<LeaseTe
         return terms.findByIndexAndDate(indexValue.getIndexBase().getIndex(), indexValue.getStartDate());
     }
 
+    @Action(semantics = SemanticsOf.IDEMPOTENT)
+    @ActionLayout(contributed = Contributed.AS_ACTION)
+    public String reindexLeaseTerms(final IndexValue indexValue) {
+        return terms.reindex(
+                indexValue.getIndexBase().getIndex(),
+                Collections.singleton(indexValue.getStartDate()),
+                LeaseTermsForIndexable.DEFAULT_REINDEX_CHUNK_SIZE).toString();
+    }
+
     @Inject
     LeaseTermsForIndexable terms;
 }
@@ -0,0 +1,89 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import javax.enterprise.context.RequestScoped;
+
+import com.google.common.collect.Maps;
+
+import org.apache.isis.applib.ApplicationException;
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+
+import org.estatio.dom.lease.LeaseTerm;
+import org.estatio.dom.lease.invoicing.InvoiceCalculationService.CalculationResult;
+
+/**
+ * Caches the {@link CalculationResult calculation results} of lease terms for
+ * the duration of a request, so that aligning turnover rent terms and
+ * calculating an invoice run do not calculate the same term twice.
+ *
+ * <p>
+ * The results are keyed by the term, its
+ * {@link LeaseTerm#getCalculationRevision() calculation revision}, its
+ * {@link LeaseTerm#calculationState() calculation state} and the arguments of
+ * the calculation, which include the relevant state of its lease item.
+ * Aligning a term increments its revision, while values and dates set directly
+ * change its state; either way the results cached for its previous state are
+ * not reused.
+ */
+@DomainService(nature = NatureOfService.DOMAIN)
+@RequestScoped
+public class CalculationResultsCache {
+
+    private final Map<List<Object>, List<CalculationResult>> resultsByKey = Maps.newHashMap();
+
+    @Programmatic
+    public List<CalculationResult> execute(
+            final Callable<List<CalculationResult>> calculation,
+            final LeaseTerm leaseTerm,
+            final Object... keys) {
+        final List<Object> key = Arrays.asList(
+                leaseTerm, leaseTerm.getCalculationRevision(), leaseTerm.calculationState(), Arrays.asList(keys));
+        List<CalculationResult> results = resultsByKey.get(key);
+        if (results == null) {
+            try {
+                results = Collections.unmodifiableList(calculation.call());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ApplicationException(e);
+            }
+            resultsByKey.put(key, results);
+        }
+        return results;
+    }
+
+    /**
+     * Discards all cached results, for example between the transactions of a
+     * partitioned invoice run.
+     */
+    @Programmatic
+    public void clear() {
+        resultsByKey.clear();
+    }
+
+}
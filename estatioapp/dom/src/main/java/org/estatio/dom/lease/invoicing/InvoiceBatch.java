@@ -0,0 +1,149 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
+
+import org.joda.time.LocalDate;
+
+import org.estatio.dom.invoice.Invoice;
+import org.estatio.dom.invoice.PaymentMethod;
+import org.estatio.dom.lease.Lease;
+import org.estatio.dom.party.Party;
+
+/**
+ * The {@link org.estatio.dom.invoice.InvoiceStatus#NEW new} invoices of an
+ * invoice run, indexed by seller, buyer, payment method, lease and due date so
+ * that the invoice for an item can be resolved without a query.
+ *
+ * <p>
+ * Also counts the objects created since the last flush, so that they can be
+ * flushed every {@link #getFlushSize() flush size} objects rather than one by
+ * one.
+ *
+ * @see org.estatio.dom.invoice.Invoices#newInvoiceBatch(org.estatio.dom.asset.FixedAsset, LocalDate, String, int)
+ */
+public class InvoiceBatch {
+
+    private final String runId;
+    private final int flushSize;
+    private final Map<Key, Invoice> invoicesByKey = Maps.newHashMap();
+
+    private int unflushed;
+
+    public InvoiceBatch(final String runId, final int flushSize, final List<Invoice> invoices) {
+        this.runId = runId;
+        this.flushSize = flushSize;
+        for (Invoice invoice : invoices) {
+            invoicesByKey.put(keyOf(invoice), invoice);
+        }
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public int getFlushSize() {
+        return flushSize;
+    }
+
+    // //////////////////////////////////////
+
+    public Invoice findInvoice(
+            final Party seller,
+            final Party buyer,
+            final PaymentMethod paymentMethod,
+            final Lease lease,
+            final LocalDate dueDate) {
+        return invoicesByKey.get(new Key(seller, buyer, paymentMethod, lease, dueDate));
+    }
+
+    public void invoiceCreated(final Invoice invoice) {
+        invoicesByKey.put(keyOf(invoice), invoice);
+        unflushed++;
+    }
+
+    public void itemCreated() {
+        unflushed++;
+    }
+
+    public boolean isFlushDue() {
+        return unflushed >= flushSize;
+    }
+
+    public void flushed() {
+        unflushed = 0;
+    }
+
+    // //////////////////////////////////////
+
+    private static Key keyOf(final Invoice invoice) {
+        return new Key(invoice.getSeller(), invoice.getBuyer(), invoice.getPaymentMethod(), invoice.getLease(), invoice.getDueDate());
+    }
+
+    private static final class Key {
+
+        private final Party seller;
+        private final Party buyer;
+        private final PaymentMethod paymentMethod;
+        private final Lease lease;
+        private final LocalDate dueDate;
+
+        Key(
+                final Party seller,
+                final Party buyer,
+                final PaymentMethod paymentMethod,
+                final Lease lease,
+                final LocalDate dueDate) {
+            this.seller = seller;
+            this.buyer = buyer;
+            this.paymentMethod = paymentMethod;
+            this.lease = lease;
+            this.dueDate = dueDate;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return seller == other.seller
+                    && buyer == other.buyer
+                    && paymentMethod == other.paymentMethod
+                    && lease == other.lease
+                    && Objects.equal(dueDate, other.dueDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(
+                    System.identityHashCode(seller),
+                    System.identityHashCode(buyer),
+                    paymentMethod,
+                    System.identityHashCode(lease),
+                    dueDate);
+        }
+    }
+
+}
@@ -140,6 +140,47 @@ public class InvoiceCalculationParameters {
         this.leaseTerm = leaseTerm;
     }
 
+    /**
+     * The domain objects these parameters refer to, see {@link #copy(Function)}.
+     */
+    List<Object> domainObjects() {
+        final List<Object> domainObjects = Lists.newArrayList();
+        for (Object domainObject : Arrays.asList(property, leaseItem, leaseTerm)) {
+            if (domainObject != null) {
+                domainObjects.add(domainObject);
+            }
+        }
+        if (leases != null) {
+            domainObjects.addAll(leases);
+        }
+        return domainObjects;
+    }
+
+    /**
+     * A copy of these parameters, referring to the domain objects that the
+     * resolver returns for the {@link #domainObjects() domain objects} of
+     * these, for example the same objects loaded by another persistence
+     * session.
+     */
+    InvoiceCalculationParameters copy(final Function<Object, Object> resolver) {
+        final InvoiceCalculationParameters copy = new InvoiceCalculationParameters(
+                invoiceRunType,
+                invoiceDueDate,
+                dueDateRange.startDate(),
+                dueDateRange.endDateExcluding());
+        copy.property = property == null ? null : (Property) resolver.apply(property);
+        copy.leaseItem = leaseItem == null ? null : (LeaseItem) resolver.apply(leaseItem);
+        copy.leaseTerm = leaseTerm == null ? null : (LeaseTerm) resolver.apply(leaseTerm);
+        if (leases != null) {
+            copy.leases = Lists.newArrayList();
+            for (Lease lease : leases) {
+                copy.leases.add((Lease) resolver.apply(lease));
+            }
+        }
+        copy.leaseItemTypes = leaseItemTypes;
+        return copy;
+    }
+
     public LocalDateInterval dueDateRange() {
         return dueDateRange;
     }
@@ -20,46 +20,102 @@ package org.estatio.dom.lease.invoicing;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
-import java.math.RoundingMode;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import com.google.common.base.Function;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.apache.commons.lang3.ObjectUtils;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalDateTime;
+import org.apache.isis.applib.ApplicationException;
 import org.apache.isis.applib.annotation.DomainService;
 import org.apache.isis.applib.annotation.Hidden;
 import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.bookmark.Bookmark;
+import org.apache.isis.applib.services.bookmark.BookmarkService;
+import org.apache.isis.applib.services.xactn.TransactionService;
+import org.apache.isis.core.commons.authentication.AuthenticationSession;
+import org.apache.isis.core.runtime.sessiontemplates.AbstractIsisSessionTemplate;
+import org.apache.isis.core.runtime.system.context.IsisContext;
+import org.apache.isis.core.runtime.system.transaction.TransactionalClosure;
 import org.estatio.dom.UdoDomainService;
 import org.estatio.dom.charge.Charge;
+import org.estatio.dom.invoice.Invoice;
 import org.estatio.dom.invoice.Invoices;
 import org.estatio.dom.invoice.InvoicingInterval;
 import org.estatio.dom.lease.*;
+import org.estatio.dom.tax.Tax;
 import org.estatio.dom.valuetypes.AbstractInterval.IntervalEnding;
 import org.estatio.dom.valuetypes.LocalDateInterval;
 import org.estatio.domsettings.EstatioSettingsService;
 
-//@RequestScoped  // TODO: this should be @RequestScoped, I think, since has a field
 @DomainService(menuOrder = "50")
 @Hidden
 public class InvoiceCalculationService extends UdoDomainService<InvoiceCalculationService> {
 
+    /**
+     * Number of leases calculated and committed per transaction by
+     * {@link #calculateAndInvoiceInChunks(InvoiceCalculationParameters, int)}.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 50;
+
+    /**
+     * Number of worker threads that calculate the chunks of
+     * {@link #calculateAndInvoiceInChunks(InvoiceCalculationParameters, int)}
+     * at the same time.
+     */
+    public static final int DEFAULT_WORKERS = 4;
+
+    /**
+     * Number of new invoices and invoice items after which they are flushed to
+     * the database, unless configured otherwise by {@link #FLUSH_SIZE_KEY}.
+     */
+    public static final int DEFAULT_FLUSH_SIZE = 100;
+
+    /**
+     * Configuration property for the flush size of invoice runs; best kept a
+     * multiple of the persistor's <tt>statementBatchLimit</tt>.
+     */
+    public static final String FLUSH_SIZE_KEY = "estatio.invoicing.flushSize";
+
+    private int flushSize = DEFAULT_FLUSH_SIZE;
+
     public InvoiceCalculationService() {
         super(InvoiceCalculationService.class);
     }
 
+    @Override
+    @Programmatic
+    @PostConstruct
+    public void init(final Map<String, String> properties) {
+        super.init(properties);
+        final String flushSizeProperty = properties.get(FLUSH_SIZE_KEY);
+        if (flushSizeProperty != null) {
+            flushSize = Integer.parseInt(flushSizeProperty.trim());
+        }
+    }
+
     /**
      * class to store the result a calculation
      * 
      */
     public static class CalculationResult {
-        private static final BigDecimal ZERO = new BigDecimal("0.00");
-        private BigDecimal value;
-        private BigDecimal valueOnDueDate;
-        private BigDecimal mockValue;;
+        private final BigDecimal value;
+        private final BigDecimal valueOnDueDate;
+        private final BigDecimal mockValue;
 
         private InvoicingInterval invoicingInterval;
         private LocalDateInterval effectiveInterval;
@@ -69,9 +125,13 @@ public class InvoiceCalculationService extends UdoDomainService<InvoiceCalculati
         }
 
         public CalculationResult(final InvoicingInterval interval) {
-            this(interval, interval.asLocalDateInterval(), ZERO, ZERO, ZERO);
+            this(interval, interval.asLocalDateInterval(), 0, 0, 0);
         }
 
+        /**
+         * Keeps the values exactly as given, the invoice items are created
+         * from them without rounding.
+         */
         public CalculationResult(
                 final InvoicingInterval interval,
                 final LocalDateInterval effectiveInterval,
@@ -85,6 +145,19 @@ public class InvoiceCalculationService extends UdoDomainService<InvoiceCalculati
             this.mockValue = mockValue;
         }
 
+        CalculationResult(
+                final InvoicingInterval interval,
+                final LocalDateInterval effectiveInterval,
+                final long valueCents,
+                final long valueOnDueDateCents,
+                final long mockValueCents) {
+            this.invoicingInterval = interval;
+            this.effectiveInterval = effectiveInterval;
+            this.value = MoneyCents.toBigDecimal(valueCents);
+            this.valueOnDueDate = MoneyCents.toBigDecimal(valueOnDueDateCents);
+            this.mockValue = MoneyCents.toBigDecimal(mockValueCents);
+        }
+
         public BigDecimal value() {
             return value;
         }
@@ -107,7 +180,7 @@ public class InvoiceCalculationService extends UdoDomainService<InvoiceCalculati
 
         @Override
         public String toString() {
-            return invoicingInterval.toString().concat(" : ").concat(value.toString());
+            return invoicingInterval.toString().concat(" : ").concat(value().toString());
         }
     }
 
@@ -127,66 +200,344 @@ public class InvoiceCalculationService extends UdoDomainService<InvoiceCalculati
         }
     }
 
-    private LocalDate systemEpochDate() {
-        return estatioSettingsService.fetchEpochDate();
+    /**
+     * Resolves the state of a new run once, up front.
+     */
+    private InvoiceRunContext newRunContext(
+            final String runId,
+            final InvoiceCalculationParameters parameters) {
+        return new InvoiceRunContext(
+                runId,
+                parameters,
+                estatioSettingsService.fetchEpochDate(),
+                estatioSettingsService.systemCurrency());
+    }
+
+    private static String newRunId(final InvoiceCalculationParameters parameters) {
+        return LocalDateTime.now().toString().concat(" - ").concat(parameters.toString());
     }
 
-    private String interactionId;
+    /**
+     * The context of a chunk of the run, with the state of its own leases.
+     * The calculation results cache is request-scoped rather than part of the
+     * context; it is cleared here, as each chunk starts a new transaction.
+     */
+    private InvoiceRunContext forChunk(final InvoiceRunContext run, final List<Lease> chunk) {
+        if (calculationResultsCache != null) {
+            calculationResultsCache.clear();
+        }
+        return run.forChunk(
+                leaseTermChanges.changeSetFor(chunk),
+                invoiceItemsForLease.invoicedValues(chunk),
+                invoices.newInvoiceBatch(
+                        run.parameters().property(), run.parameters().invoiceDueDate(), run.runId(), flushSize));
+    }
 
-    private void startInteraction(final String parameters) {
-        if (interactionId == null) {
-            interactionId = LocalDateTime.now().toString().concat(" - ").concat(parameters);
+    @Programmatic
+    public String calculateAndInvoice(InvoiceCalculationParameters parameters) {
+        removeRuns(parameters);
+        final List<Lease> leases = leasesToCalculate(parameters);
+        final InvoiceRunContext run = newRunContext(newRunId(parameters), parameters);
+        final List<Lease> leasesToCalculate = leasesToCalculate(leases, parameters);
+        final InvoiceRunContext context = forChunk(run, leasesToCalculate);
+        for (Lease lease : leasesToCalculate) {
+            calculateAndInvoice(lease, context);
         }
+        return context.runId();
     }
 
-    private void endInteraction() {
-        interactionId = null;
+    /**
+     * Partitioned variant of {@link #calculateAndInvoice(InvoiceCalculationParameters)}:
+     * splits the leases into chunks of <tt>chunkSize</tt> and calculates them
+     * on a pool of {@link #DEFAULT_WORKERS} worker threads. Each chunk is
+     * calculated in a persistence session and a transaction of its own and
+     * committed under the one shared run id.
+     *
+     * <p>
+     * If a chunk fails, the other chunks are kept and the run can be continued
+     * using {@link #resumeCalculateAndInvoice(InvoiceCalculationParameters, String, int)}.
+     */
+    @Programmatic
+    public InvoiceRunProgress calculateAndInvoiceInChunks(
+            final InvoiceCalculationParameters parameters,
+            final int chunkSize) {
+        final long rowsRemoved = isDeltaRun(parameters) ? 0 : invoices.removeRunsInBulk(parameters);
+        transactionService.nextTransaction();
+        final InvoiceRunProgress progress = calculateAndInvoiceInChunks(parameters, newRunId(parameters), chunkSize);
+        progress.rowsRemoved(rowsRemoved);
+        return progress;
     }
 
+    /**
+     * Continues a partitioned run after a failure, skipping the leases that
+     * were already invoiced by the committed chunks of the run.
+     */
     @Programmatic
-    public String calculateAndInvoice(InvoiceCalculationParameters parameters) {
-        String lastInteractionId = null;
-        invoices.removeRuns(parameters);
+    public InvoiceRunProgress resumeCalculateAndInvoice(
+            final InvoiceCalculationParameters parameters,
+            final String runId,
+            final int chunkSize) {
+        return calculateAndInvoiceInChunks(parameters, runId, chunkSize);
+    }
+
+    private InvoiceRunProgress calculateAndInvoiceInChunks(
+            final InvoiceCalculationParameters parameters,
+            final String runId,
+            final int chunkSize) {
+        final Set<Lease> leasesInvoiced = Sets.newHashSet();
+        for (Invoice invoice : invoices.findInvoicesByRunId(runId)) {
+            leasesInvoiced.add(invoice.getLease());
+        }
+        final List<Lease> leasesToCalculate = leasesToCalculate(leasesToCalculate(parameters), parameters);
+        final List<Bookmark> leasesToInvoice = Lists.newArrayList();
+        for (Lease lease : leasesToCalculate) {
+            if (!leasesInvoiced.contains(lease)) {
+                leasesToInvoice.add(bookmarkService.bookmarkFor(lease));
+            }
+        }
+        final List<List<Bookmark>> chunks = Lists.partition(leasesToInvoice, chunkSize);
+        final InvoiceRunProgress progress = new InvoiceRunProgress(runId, leasesToCalculate.size(), chunks.size());
+        progress.leasesSkipped(leasesToCalculate.size() - leasesToInvoice.size());
+        if (chunks.isEmpty()) {
+            return progress;
+        }
+
+        // the workers have sessions of their own, they look the domain objects up again by bookmark
+        final Map<Object, Bookmark> bookmarks = Maps.newHashMap();
+        for (Object domainObject : parameters.domainObjects()) {
+            bookmarks.put(domainObject, bookmarkService.bookmarkFor(domainObject));
+        }
+        final AuthenticationSession authenticationSession = IsisContext.getAuthenticationSession();
+        final ExecutorService workers = Executors.newFixedThreadPool(Math.min(DEFAULT_WORKERS, chunks.size()));
         try {
-            startInteraction(parameters.toString());
-            for (Lease lease : parameters.leases() == null ? leases.findLeasesByProperty(parameters.property()) : parameters.leases()) {
-                lease.verifyUntil(parameters.dueDateRange().endDateExcluding());
-                if (lease.getStatus() != LeaseStatus.SUSPENDED) {
-                    SortedSet<LeaseItem> leaseItems =
-                            parameters.leaseItem() == null ?
-                                    lease.getItems() :
-                                    new TreeSet<LeaseItem>(Arrays.asList(parameters.leaseItem()));
-                    for (LeaseItem leaseItem : leaseItems) {
-                        if (!leaseItem.getStatus().equals(LeaseItemStatus.SUSPENDED)) {
-                            if (parameters.leaseItemTypes() == null || parameters.leaseItemTypes().contains(leaseItem.getType())) {
-                                SortedSet<LeaseTerm> leaseTerms =
-                                        parameters.leaseTerm() == null ?
-                                                leaseItem.getTerms() :
-                                                new TreeSet<LeaseTerm>(Arrays.asList(parameters.leaseTerm()));
-                                for (LeaseTerm leaseTerm : leaseTerms) {
-                                    final List<CalculationResult> results;
-                                    results = calculateDueDateRange(leaseTerm, parameters);
-                                    createInvoiceItems(leaseTerm, parameters, results);
+            final List<Future<Integer>> chunksCalculated = Lists.newArrayList();
+            for (List<Bookmark> chunk : chunks) {
+                chunksCalculated.add(workers.submit(
+                        new ChunkCalculation(authenticationSession, runId, parameters, bookmarks, chunk)));
+            }
+            int failedChunk = 0;
+            Throwable failure = null;
+            for (int i = 0; i < chunksCalculated.size(); i++) {
+                try {
+                    progress.leasesDone(chunksCalculated.get(i).get());
+                    progress.chunkCommitted();
+                } catch (ExecutionException ex) {
+                    if (failure == null) {
+                        failedChunk = i + 1;
+                        failure = ex.getCause();
+                    }
+                }
+            }
+            if (failure != null) {
+                throw new ApplicationException(
+                        String.format("Chunk %d failed, resume using the run id. %s", failedChunk, progress),
+                        failure);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ApplicationException(
+                    String.format("Run interrupted, resume using the run id. %s", progress), ex);
+        } finally {
+            workers.shutdownNow();
+        }
+        return progress;
+    }
+
+    /**
+     * Calculates a chunk of a partitioned run on a worker thread, in a
+     * persistence session and a transaction of its own. The leases and the
+     * domain objects of the parameters are looked up again, by bookmark, in
+     * that session.
+     */
+    private class ChunkCalculation extends AbstractIsisSessionTemplate implements Callable<Integer> {
+
+        private final AuthenticationSession authenticationSession;
+        private final String runId;
+        private final InvoiceCalculationParameters parameters;
+        private final Map<Object, Bookmark> bookmarks;
+        private final List<Bookmark> leases;
+
+        private int leasesDone;
+
+        ChunkCalculation(
+                final AuthenticationSession authenticationSession,
+                final String runId,
+                final InvoiceCalculationParameters parameters,
+                final Map<Object, Bookmark> bookmarks,
+                final List<Bookmark> leases) {
+            this.authenticationSession = authenticationSession;
+            this.runId = runId;
+            this.parameters = parameters;
+            this.bookmarks = bookmarks;
+            this.leases = leases;
+        }
+
+        @Override
+        public Integer call() {
+            execute(authenticationSession, null);
+            return leasesDone;
+        }
+
+        @Override
+        protected void doExecute(final Object context) {
+            IsisContext.getTransactionManager().executeWithinTransaction(new TransactionalClosure() {
+                @Override
+                public void execute() {
+                    calculateChunk();
+                }
+            });
+        }
+
+        private void calculateChunk() {
+            final InvoiceCalculationParameters chunkParameters = parameters.copy(new Function<Object, Object>() {
+                @Override
+                public Object apply(final Object domainObject) {
+                    return bookmarkService.lookup(bookmarks.get(domainObject));
+                }
+            });
+            final List<Lease> chunk = Lists.newArrayList();
+            for (Bookmark bookmark : leases) {
+                chunk.add((Lease) bookmarkService.lookup(bookmark));
+            }
+            final InvoiceRunContext context = forChunk(newRunContext(runId, chunkParameters), chunk);
+            for (Lease lease : chunk) {
+                calculateAndInvoice(lease, context);
+                leasesDone++;
+            }
+        }
+    }
+
+    private List<Lease> leasesToCalculate(final InvoiceCalculationParameters parameters) {
+        return parameters.leases() == null ? leases.findLeasesByProperty(parameters.property()) : parameters.leases();
+    }
+
+    /**
+     * A delta run calculates only the leases with changed terms.
+     */
+    private List<Lease> leasesToCalculate(final List<Lease> leases, final InvoiceCalculationParameters parameters) {
+        if (!isDeltaRun(parameters)) {
+            return leases;
+        }
+        final LeaseTermChangeSet changeSet = leaseTermChanges.changeSetFor(leases);
+        final List<Lease> changedLeases = Lists.newArrayList();
+        for (Lease lease : leases) {
+            if (changeSet.contains(lease)) {
+                changedLeases.add(lease);
+            }
+        }
+        return changedLeases;
+    }
+
+    private boolean isDeltaRun(final InvoiceCalculationParameters parameters) {
+        return parameters.invoiceRunType().equals(InvoiceRunType.DELTA_RUN);
+    }
+
+    /**
+     * A delta run keeps the new invoices of the run, it only replaces the
+     * items of the terms it calculates.
+     */
+    private void removeRuns(final InvoiceCalculationParameters parameters) {
+        if (!isDeltaRun(parameters)) {
+            invoices.removeRuns(parameters);
+        }
+    }
+
+    /**
+     * Calculates and invoices the lease, then removes the journalled changes
+     * of the lease, also those of terms the run skips; the journal holds the
+     * changes since the lease was last calculated.
+     */
+    private void calculateAndInvoice(
+            final Lease lease,
+            final InvoiceRunContext context) {
+        final InvoiceCalculationParameters parameters = context.parameters();
+        final Set<LeaseTerm> termsBeforeVerify = context.isDeltaRun() ? termsOf(lease) : null;
+        lease.verifyUntil(parameters.dueDateRange().endDateExcluding());
+        if (lease.getStatus() != LeaseStatus.SUSPENDED) {
+            SortedSet<LeaseItem> leaseItems =
+                    parameters.leaseItem() == null ?
+                            lease.getItems() :
+                            new TreeSet<LeaseItem>(Arrays.asList(parameters.leaseItem()));
+            for (LeaseItem leaseItem : leaseItems) {
+                if (!leaseItem.getStatus().equals(LeaseItemStatus.SUSPENDED)) {
+                    if (parameters.leaseItemTypes() == null || parameters.leaseItemTypes().contains(leaseItem.getType())) {
+                        SortedSet<LeaseTerm> leaseTerms =
+                                parameters.leaseTerm() == null ?
+                                        leaseItem.getTerms() :
+                                        new TreeSet<LeaseTerm>(Arrays.asList(parameters.leaseTerm()));
+                        for (LeaseTerm leaseTerm : leaseTerms) {
+                            if (context.isDeltaRun()) {
+                                // the terms created while verifying are not journalled, but new to the run
+                                if (!context.changeSet().contains(leaseTerm) && termsBeforeVerify.contains(leaseTerm)) {
+                                    continue;
                                 }
+                                invoiceItemsForLease.removeUnapprovedInvoiceItems(leaseTerm, parameters.invoiceDueDate());
                             }
+                            final List<CalculationResult> results;
+                            results = calculateDueDateRange(leaseTerm, context);
+                            createInvoiceItems(leaseTerm, context, results);
                         }
                     }
                 }
             }
-        } finally {
-            lastInteractionId = interactionId;
-            endInteraction();
         }
-        return lastInteractionId;
+        leaseTermChanges.remove(context.changeSet().changesOf(lease));
+    }
+
+    private static Set<LeaseTerm> termsOf(final Lease lease) {
+        final Set<LeaseTerm> terms = Sets.newHashSet();
+        for (LeaseItem leaseItem : lease.getItems()) {
+            terms.addAll(leaseItem.getTerms());
+        }
+        return terms;
     }
 
     /**
-     * Calculates a term with a given invoicing frequency
+     * Calculates a term with a given invoicing frequency outside of a run.
      */
     @Programmatic
     public List<CalculationResult> calculateDueDateRange(
             final LeaseTerm leaseTerm,
             final InvoiceCalculationParameters parameters) {
+        return calculateDueDateRange(
+                leaseTerm,
+                new InvoiceRunContext(null, parameters, estatioSettingsService.fetchEpochDate(), null));
+    }
+
+    /**
+     * Calculates a term with a given invoicing frequency, reusing the results
+     * already calculated for the same term and arguments within the request.
+     */
+    @Programmatic
+    public List<CalculationResult> calculateDueDateRange(
+            final LeaseTerm leaseTerm,
+            final InvoiceRunContext context) {
+        if (calculationResultsCache == null) {
+            return doCalculateDueDateRange(leaseTerm, context);
+        }
+        final InvoiceCalculationParameters parameters = context.parameters();
+        final LeaseItem leaseItem = leaseTerm.getLeaseItem();
+        return calculationResultsCache.execute(
+                new Callable<List<CalculationResult>>() {
+                    @Override
+                    public List<CalculationResult> call() {
+                        return doCalculateDueDateRange(leaseTerm, context);
+                    }
+                },
+                leaseTerm,
+                leaseItem.getInvoicingFrequency(),
+                leaseItem.getStatus(),
+                parameters.invoiceRunType().equals(InvoiceRunType.RETRO_RUN),
+                parameters.dueDateRange().startDate(),
+                parameters.dueDateRange().endDateExcluding(),
+                leaseItem.getLease().getStartDate(),
+                ObjectUtils.firstNonNull(leaseItem.getEpochDate(), context.epochDate()));
+    }
+
+    private List<CalculationResult> doCalculateDueDateRange(
+            final LeaseTerm leaseTerm,
+            final InvoiceRunContext context) {
+        final InvoiceCalculationParameters parameters = context.parameters();
         final List<CalculationResult> results = Lists.newArrayList();
         final LocalDateInterval termInterval = leaseTerm.getEffectiveInterval();
         final LocalDateInterval rangeInterval =
@@ -214,8 +565,8 @@ public class InvoiceCalculationService extends UdoDomainService<InvoiceCalculati
                             leaseTerm.valueType().equals(LeaseTermValueType.FIXED) ?
                                     BigDecimal.ONE :
                                     overlapDays.divide(frequencyDays, MathContext.DECIMAL64);
-                    final BigDecimal annualFactor = invoicingFrequency.annualMultiplier();
-                    final LocalDate epochDate = ObjectUtils.firstNonNull(leaseTerm.getLeaseItem().getEpochDate(), systemEpochDate());
+                    final BigDecimal factor = invoicingFrequency.annualMultiplier().multiply(rangeFactor);
+                    final LocalDate epochDate = ObjectUtils.firstNonNull(leaseTerm.getLeaseItem().getEpochDate(), context.epochDate());
                     BigDecimal mockValue = BigDecimal.ZERO;
                     if (epochDate != null && invoicingInterval.dueDate().isBefore(epochDate)) {
                         mockValue = leaseTerm.valueForDate(epochDate);
@@ -223,54 +574,34 @@ public class InvoiceCalculationService extends UdoDomainService<InvoiceCalculati
                     results.add(new CalculationResult(
                             invoicingInterval,
                             effectiveInterval,
-                            calculateValue(rangeFactor, annualFactor, leaseTerm.valueForDate(parameters.dueDateRange().endDateExcluding().minusDays(1))),
-                            calculateValue(rangeFactor, annualFactor, leaseTerm.valueForDate(invoicingInterval.dueDate())),
-                            calculateValue(rangeFactor, annualFactor, mockValue)));
+                            MoneyCents.multiply(leaseTerm.valueForDate(parameters.dueDateRange().endDateExcluding().minusDays(1)), factor),
+                            MoneyCents.multiply(leaseTerm.valueForDate(invoicingInterval.dueDate()), factor),
+                            MoneyCents.multiply(mockValue, factor)));
                 }
             }
         }
         return results;
     }
 
-    /**
-     * Multiplies a value with the range and annual factors
-     * 
-     * @param rangeFactor
-     * @param annualFactor
-     * @param value
-     * @return
-     */
-    private BigDecimal calculateValue(
-            final BigDecimal rangeFactor,
-            final BigDecimal annualFactor,
-            final BigDecimal value) {
-        if (value != null && annualFactor != null && rangeFactor != null) {
-            return value.multiply(annualFactor)
-                    .multiply(rangeFactor)
-                    .setScale(2, RoundingMode.HALF_UP);
-        }
-        return new BigDecimal("0.00");
-    }
-
     /**
      * Calculates an invoice item with the difference between the already
      * invoiced and calculated value.
      * 
      * @param leaseTerm
-     * @param dueDate
-     * @param calculationResult
-     * @param invoicingFrequency
+     * @param context
+     * @param results
      */
     void createInvoiceItems(
             final LeaseTerm leaseTerm,
-            final InvoiceCalculationParameters parameters,
+            final InvoiceRunContext context,
             final List<CalculationResult> results) {
+        final InvoiceCalculationParameters parameters = context.parameters();
 
         for (CalculationResult result : results) {
             // TODO: this is a hack to speed up processing by ignoring zero
             // values on a normal run
             if (result.value().compareTo(BigDecimal.ZERO) != 0 || parameters.invoiceRunType().equals(InvoiceRunType.RETRO_RUN)) {
-                BigDecimal invoicedValue = invoiceItemsForLease.invoicedValue(leaseTerm, result.invoicingInterval().asLocalDateInterval());
+                BigDecimal invoicedValue = context.invoicedValues().invoicedValue(leaseTerm, result.invoicingInterval().asLocalDateInterval());
                 BigDecimal newValue = result.value().subtract(invoicedValue).subtract(result.mockValue());
                 if (newValue.compareTo(BigDecimal.ZERO) != 0) {
                     boolean adjustment = invoicedValue.add(result.mockValue()).compareTo(BigDecimal.ZERO) != 0;
@@ -278,12 +609,12 @@ public class InvoiceCalculationService extends UdoDomainService<InvoiceCalculati
                             invoiceItemsForLease.createUnapprovedInvoiceItem(
                                     leaseTerm,
                                     result.invoicingInterval().asLocalDateInterval(),
-                                    parameters.invoiceDueDate(),
-                                    interactionId);
+                                    context);
                     invoiceItem.setNetAmount(newValue);
                     invoiceItem.setQuantity(BigDecimal.ONE);
                     LeaseItem leaseItem = leaseTerm.getLeaseItem();
-                    Charge charge = leaseItem.getCharge();
+                    LeaseInvoicingSnapshot snapshot = context.snapshotOf(leaseItem.getLease());
+                    Charge charge = snapshot.chargeOf(leaseItem);
                     invoiceItem.setCharge(charge);
                     invoiceItem.setDescription(charge.getDescription());
                     invoiceItem.setDueDate(parameters.invoiceDueDate());
@@ -297,8 +628,9 @@ public class InvoiceCalculationService extends UdoDomainService<InvoiceCalculati
                     invoiceItem.setEffectiveStartDate(intervalToUse.startDate());
                     invoiceItem.setEffectiveEndDate(intervalToUse.endDate());
 
-                    invoiceItem.setTax(leaseItem.getEffectiveTax());
-                    invoiceItem.verify();
+                    Tax tax = snapshot.taxOf(leaseItem);
+                    invoiceItem.setTax(tax);
+                    invoiceItem.calculateTax(snapshot.taxPercentageFor(tax, invoiceItem.getDueDate()));
                     invoiceItem.setAdjustment(adjustment);
                 }
             }
@@ -314,9 +646,25 @@ public class InvoiceCalculationService extends UdoDomainService<InvoiceCalculati
     private Invoices invoices;
 
     @Inject
-    private InvoiceItemsForLease invoiceItemsForLease;
+    InvoiceItemsForLease invoiceItemsForLease;
 
     @Inject
     private Leases leases;
 
+    @Inject
+    private TransactionService transactionService;
+
+    @Inject
+    private BookmarkService bookmarkService;
+
+    @Inject
+    private LeaseTermChanges leaseTermChanges;
+
+    /**
+     * Not injected when the service is instantiated directly, as in unit
+     * tests, in which case nothing is cached.
+     */
+    @Inject
+    CalculationResultsCache calculationResultsCache;
+
 }
@@ -20,6 +20,7 @@ package org.estatio.dom.lease.invoicing;
 
 import java.math.BigDecimal;
 import java.util.List;
+import com.google.common.collect.Lists;
 import org.joda.time.LocalDate;
 import org.apache.isis.applib.ApplicationException;
 import org.apache.isis.applib.annotation.Action;
@@ -62,6 +63,27 @@ public class InvoiceItemsForLease extends UdoDomainRepositoryAndFactory<InvoiceI
                 lease,
                 InvoiceStatus.NEW,
                 dueDate, interactionId);
+        return newInvoiceItem(invoice, leaseTerm, interval, dueDate);
+    }
+
+    private InvoiceItemForLease newInvoiceItem(
+            final Invoice invoice,
+            final LeaseTerm leaseTerm,
+            final LocalDateInterval interval,
+            final LocalDate dueDate) {
+        Lease lease = leaseTerm.getLeaseItem().getLease();
+        // assumes only one occupancy per lease...
+        Unit unit = lease.getOccupancies().first().getUnit();
+        return newInvoiceItem(invoice, leaseTerm, interval, dueDate, lease, unit);
+    }
+
+    private InvoiceItemForLease newInvoiceItem(
+            final Invoice invoice,
+            final LeaseTerm leaseTerm,
+            final LocalDateInterval interval,
+            final LocalDate dueDate,
+            final Lease lease,
+            final Unit unit) {
         InvoiceItemForLease invoiceItem = newTransientInstance();
         invoiceItem.setInvoice(invoice);
         invoiceItem.setStartDate(interval.startDate());
@@ -70,9 +92,7 @@ public class InvoiceItemsForLease extends UdoDomainRepositoryAndFactory<InvoiceI
         invoiceItem.setLeaseTerm(leaseTerm);
 
         // redundantly persist, these are immutable
-        // assumes only one occupancy per lease...
         invoiceItem.setLease(lease);
-        Unit unit = lease.getOccupancies().first().getUnit();
         invoiceItem.setFixedAsset(unit);
 
         persistIfNotAlready(invoiceItem);
@@ -149,6 +169,39 @@ public class InvoiceItemsForLease extends UdoDomainRepositoryAndFactory<InvoiceI
         return newInvoiceItem(leaseTerm, invoiceInterval, dueDate, interactionId);
     }
 
+    /**
+     * Variant of {@link #createUnapprovedInvoiceItem(LeaseTerm, LocalDateInterval, LocalDate, String)}
+     * used by invoice runs: the lease is taken from its
+     * {@link LeaseInvoicingSnapshot snapshot}, the invoice is resolved from the
+     * batch of the run and new objects are flushed every
+     * {@link InvoiceBatch#getFlushSize() flush size} objects.
+     */
+    @Programmatic
+    public InvoiceItemForLease createUnapprovedInvoiceItem(
+            final LeaseTerm leaseTerm,
+            final LocalDateInterval invoiceInterval,
+            final InvoiceRunContext context) {
+        final InvoiceBatch batch = context.batch();
+        final LocalDate dueDate = context.parameters().invoiceDueDate();
+        // flush before creating, the items created previously are complete by now
+        if (batch.isFlushDue()) {
+            getContainer().flush();
+            batch.flushed();
+        }
+        final LeaseInvoicingSnapshot snapshot = context.snapshotOf(leaseTerm.getLeaseItem().getLease());
+        final Invoice invoice = invoices.findOrCreateMatchingInvoice(
+                leaseTerm.getApplicationTenancy(),
+                leaseTerm.getLeaseItem().getPaymentMethod(),
+                snapshot,
+                dueDate,
+                context.systemCurrency(),
+                batch);
+        final InvoiceItemForLease invoiceItem = newInvoiceItem(
+                invoice, leaseTerm, invoiceInterval, dueDate, snapshot.getLease(), snapshot.getUnit());
+        batch.itemCreated();
+        return invoiceItem;
+    }
+
     @Programmatic
     public InvoiceItemForLease findUnapprovedInvoiceItem(
             final LeaseTerm leaseTerm,
@@ -181,6 +234,27 @@ public class InvoiceItemsForLease extends UdoDomainRepositoryAndFactory<InvoiceI
         return invoicedValue;
     }
 
+    /**
+     * Loads the {@link InvoicedValues already invoiced values} of all the
+     * provided leases, with one query per
+     * {@link #IN_PARAMETER_CHUNK_SIZE chunk} of leases so
+     * that the <tt>IN</tt> parameter stays bounded.
+     */
+    @Programmatic
+    public InvoicedValues invoicedValues(final List<Lease> leases) {
+        final InvoicedValues invoicedValues = new InvoicedValues();
+        for (List<Lease> chunk : Lists.partition(leases, IN_PARAMETER_CHUNK_SIZE)) {
+            final List<InvoiceItemForLease> items = allMatches(
+                    "findByLeasesAndInvoiceStatusNot",
+                    "leases", chunk,
+                    "invoiceStatus", InvoiceStatus.NEW);
+            for (InvoiceItemForLease invoiceItem : items) {
+                invoicedValues.add(invoiceItem);
+            }
+        }
+        return invoicedValues;
+    }
+
     @Programmatic
     public void removeUnapprovedInvoiceItems(
             final LeaseTerm leaseTerm,
@@ -195,6 +269,21 @@ public class InvoiceItemsForLease extends UdoDomainRepositoryAndFactory<InvoiceI
         getContainer().flush();
     }
 
+    /**
+     * Removes the items of the term on the {@link InvoiceStatus#NEW new}
+     * invoices due on the given date, so that a delta run can recreate them.
+     */
+    @Programmatic
+    public void removeUnapprovedInvoiceItems(
+            final LeaseTerm leaseTerm,
+            final LocalDate dueDate) {
+        for (InvoiceItemForLease invoiceItem : findByLeaseTermAndInvoiceStatus(leaseTerm, InvoiceStatus.NEW)) {
+            if (dueDate.equals(invoiceItem.getInvoice().getDueDate())) {
+                invoiceItem.remove();
+            }
+        }
+    }
+
     // //////////////////////////////////////
 
     private Invoices invoices;
@@ -0,0 +1,148 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.joda.time.LocalDate;
+
+import org.estatio.dom.currency.Currency;
+import org.estatio.dom.lease.Lease;
+
+/**
+ * The state of one invoice run, resolved once when the run starts and passed
+ * explicitly through the calculation instead of being held by the (singleton)
+ * {@link InvoiceCalculationService}.
+ *
+ * <p>
+ * The context of a run only holds immutable state.
+ * {@link #forChunk(LeaseTermChangeSet, InvoicedValues, InvoiceBatch)} returns
+ * the context of a chunk of leases, which adds the
+ * {@link LeaseTermChangeSet journalled changes}, the
+ * {@link InvoicedValues ledger}, the {@link InvoiceBatch batch} and the
+ * {@link LeaseInvoicingSnapshot snapshots} of the leases of that chunk only.
+ * These are mutable and not thread-safe, and each chunk gets its own.
+ */
+public class InvoiceRunContext {
+
+    private final String runId;
+    private final InvoiceCalculationParameters parameters;
+    private final LocalDate epochDate;
+    private final Currency systemCurrency;
+    private final LeaseTermChangeSet changeSet;
+    private final InvoicedValues invoicedValues;
+    private final InvoiceBatch batch;
+    private final Map<Lease, LeaseInvoicingSnapshot> snapshots;
+
+    /**
+     * @param epochDate
+     *            the system epoch date, or <tt>null</tt> if not set
+     */
+    public InvoiceRunContext(
+            final String runId,
+            final InvoiceCalculationParameters parameters,
+            final LocalDate epochDate,
+            final Currency systemCurrency) {
+        this(runId, parameters, epochDate, systemCurrency, null, null, null, null);
+    }
+
+    private InvoiceRunContext(
+            final String runId,
+            final InvoiceCalculationParameters parameters,
+            final LocalDate epochDate,
+            final Currency systemCurrency,
+            final LeaseTermChangeSet changeSet,
+            final InvoicedValues invoicedValues,
+            final InvoiceBatch batch,
+            final Map<Lease, LeaseInvoicingSnapshot> snapshots) {
+        this.runId = runId;
+        this.parameters = parameters;
+        this.epochDate = epochDate;
+        this.systemCurrency = systemCurrency;
+        this.changeSet = changeSet;
+        this.invoicedValues = invoicedValues;
+        this.batch = batch;
+        this.snapshots = snapshots;
+    }
+
+    public InvoiceRunContext forChunk(
+            final LeaseTermChangeSet changeSet,
+            final InvoicedValues invoicedValues,
+            final InvoiceBatch batch) {
+        return new InvoiceRunContext(
+                runId, parameters, epochDate, systemCurrency, changeSet, invoicedValues, batch,
+                Maps.<Lease, LeaseInvoicingSnapshot>newHashMap());
+    }
+
+    // //////////////////////////////////////
+
+    public String runId() {
+        return runId;
+    }
+
+    public InvoiceCalculationParameters parameters() {
+        return parameters;
+    }
+
+    public LocalDate epochDate() {
+        return epochDate;
+    }
+
+    public Currency systemCurrency() {
+        return systemCurrency;
+    }
+
+    /**
+     * The journalled changes of the leases of the chunk.
+     */
+    public LeaseTermChangeSet changeSet() {
+        return changeSet;
+    }
+
+    public boolean isDeltaRun() {
+        return parameters.invoiceRunType() == InvoiceRunType.DELTA_RUN;
+    }
+
+    public InvoicedValues invoicedValues() {
+        return invoicedValues;
+    }
+
+    public InvoiceBatch batch() {
+        return batch;
+    }
+
+    /**
+     * The snapshot of the lease, resolved the first time it is asked for in
+     * the chunk (and every time outside of a chunk).
+     */
+    public LeaseInvoicingSnapshot snapshotOf(final Lease lease) {
+        if (snapshots == null) {
+            return new LeaseInvoicingSnapshot(lease);
+        }
+        LeaseInvoicingSnapshot snapshot = snapshots.get(lease);
+        if (snapshot == null) {
+            snapshot = new LeaseInvoicingSnapshot(lease);
+            snapshots.put(lease, snapshot);
+        }
+        return snapshot;
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+/**
+ * Tracks the progress of a partitioned invoice run, see
+ * {@link InvoiceCalculationService#calculateAndInvoiceInChunks(InvoiceCalculationParameters, int)}.
+ *
+ * <p>
+ * Every chunk is committed in its own transaction, so a failed run can be
+ * resumed using its {@link #getRunId() run id}, skipping the leases of the
+ * {@link #getChunksCommitted() committed chunks}.
+ */
+public class InvoiceRunProgress {
+
+    private final String runId;
+    private final int leasesTotal;
+    private final int chunksTotal;
+
+    private long rowsRemoved;
+    private int leasesDone;
+    private int leasesSkipped;
+    private int chunksCommitted;
+
+    public InvoiceRunProgress(
+            final String runId,
+            final int leasesTotal,
+            final int chunksTotal) {
+        this.runId = runId;
+        this.leasesTotal = leasesTotal;
+        this.chunksTotal = chunksTotal;
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    public int getLeasesTotal() {
+        return leasesTotal;
+    }
+
+    public int getChunksTotal() {
+        return chunksTotal;
+    }
+
+    /**
+     * Invoices and invoice items of earlier runs removed before this run started.
+     */
+    public long getRowsRemoved() {
+        return rowsRemoved;
+    }
+
+    public int getLeasesDone() {
+        return leasesDone;
+    }
+
+    /**
+     * Leases already invoiced by an earlier, interrupted attempt of the same run.
+     */
+    public int getLeasesSkipped() {
+        return leasesSkipped;
+    }
+
+    public int getChunksCommitted() {
+        return chunksCommitted;
+    }
+
+    public boolean isCompleted() {
+        return chunksCommitted == chunksTotal;
+    }
+
+    // //////////////////////////////////////
+
+    void rowsRemoved(final long rowsRemoved) {
+        this.rowsRemoved = rowsRemoved;
+    }
+
+    void leasesDone(final int leasesDone) {
+        this.leasesDone += leasesDone;
+    }
+
+    void leasesSkipped(final int leasesSkipped) {
+        this.leasesSkipped += leasesSkipped;
+    }
+
+    void chunkCommitted() {
+        chunksCommitted++;
+    }
+
+    // //////////////////////////////////////
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Run %s: %d rows of earlier runs removed, %d of %d chunks committed, %d of %d leases calculated, %d skipped",
+                runId, rowsRemoved, chunksCommitted, chunksTotal, leasesDone, leasesTotal, leasesSkipped);
+    }
+
+}
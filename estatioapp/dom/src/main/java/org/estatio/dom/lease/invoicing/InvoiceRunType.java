@@ -5,7 +5,14 @@ import org.estatio.dom.utils.StringUtils;
 
 public enum InvoiceRunType {
     NORMAL_RUN,
-    RETRO_RUN;
+    RETRO_RUN,
+    /**
+     * Like a normal run, but only calculates the terms that have changed since
+     * they were last calculated.
+     *
+     * @see LeaseTermChange
+     */
+    DELTA_RUN;
     
     public String title() {
         return StringUtils.enumTitle(this.name());
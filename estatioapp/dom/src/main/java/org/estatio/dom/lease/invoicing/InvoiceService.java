@@ -48,15 +48,17 @@ public class InvoiceService extends UdoDomainService<InvoiceService> {
             final @ParameterLayout(named = "Invoice due date") LocalDate invoiceDueDate,
             final @ParameterLayout(named = "Start due date") LocalDate startDueDate,
             final @ParameterLayout(named = "Next due date") LocalDate nextDueDate) {
-        final String runId = invoiceCalculationService.calculateAndInvoice(
+        final InvoiceRunProgress progress = invoiceCalculationService.calculateAndInvoiceInChunks(
                 new InvoiceCalculationParameters(
                         property,
                         calculationSelection.selectedTypes(),
                         invoiceRunType,
                         invoiceDueDate,
                         startDueDate,
-                        nextDueDate));
-        return invoiceSummaries.findByRunId(runId);
+                        nextDueDate),
+                InvoiceCalculationService.DEFAULT_CHUNK_SIZE);
+        getContainer().informUser(progress.toString());
+        return invoiceSummaries.findByRunId(progress.getRunId());
     }
 
     public InvoiceRunType default1CalculateInvoicesForProperty() {
@@ -94,6 +96,47 @@ public class InvoiceService extends UdoDomainService<InvoiceService> {
 
     // //////////////////////////////////////
 
+    /**
+     * Continues a {@link #calculateInvoicesForProperty(Property, InvoiceRunType, InvoiceCalculationSelection, LocalDate, LocalDate, LocalDate) property run}
+     * that failed halfway, keeping the chunks that were already committed.
+     */
+    @ActionSemantics(Of.NON_IDEMPOTENT)
+    @MemberOrder(name = "Invoices", sequence = "2")
+    public Object resumeInvoicesForProperty(
+            final @ParameterLayout(named = "Run Id") String runId,
+            final @ParameterLayout(named = "Property") Property property,
+            final @ParameterLayout(named = "Run Type") InvoiceRunType invoiceRunType,
+            final @ParameterLayout(named = "Selection") InvoiceCalculationSelection calculationSelection,
+            final @ParameterLayout(named = "Invoice due date") LocalDate invoiceDueDate,
+            final @ParameterLayout(named = "Start due date") LocalDate startDueDate,
+            final @ParameterLayout(named = "Next due date") LocalDate nextDueDate) {
+        final InvoiceRunProgress progress = invoiceCalculationService.resumeCalculateAndInvoice(
+                new InvoiceCalculationParameters(
+                        property,
+                        calculationSelection.selectedTypes(),
+                        invoiceRunType,
+                        invoiceDueDate,
+                        startDueDate,
+                        nextDueDate),
+                runId,
+                InvoiceCalculationService.DEFAULT_CHUNK_SIZE);
+        getContainer().informUser(progress.toString());
+        return invoiceSummaries.findByRunId(progress.getRunId());
+    }
+
+    public String validateResumeInvoicesForProperty(
+            final String runId,
+            final Property property,
+            final InvoiceRunType runType,
+            final InvoiceCalculationSelection calculationSelection,
+            final LocalDate dueDate,
+            final LocalDate startDate,
+            final LocalDate endDate) {
+        return validateCalculateInvoicesForProperty(property, runType, calculationSelection, dueDate, startDate, endDate);
+    }
+
+    // //////////////////////////////////////
+
     @Prototype
     @ActionSemantics(Of.NON_IDEMPOTENT)
     @MemberOrder(name = "Invoices", sequence = "99")
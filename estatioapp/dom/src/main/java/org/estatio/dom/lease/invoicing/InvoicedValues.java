@@ -0,0 +1,90 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
+
+import org.joda.time.LocalDate;
+
+import org.estatio.dom.lease.LeaseTerm;
+import org.estatio.dom.valuetypes.LocalDateInterval;
+
+/**
+ * In-memory ledger of the amounts already invoiced (that is, on invoices that
+ * are no longer {@link org.estatio.dom.invoice.InvoiceStatus#NEW new}) per
+ * {@link LeaseTerm} and invoicing interval.
+ *
+ * <p>
+ * Loaded in one go by {@link InvoiceItemsForLease#invoicedValues(java.util.List)}
+ * so that the invoice calculation does not have to query per interval.
+ */
+public class InvoicedValues {
+
+    private final Map<Key, BigDecimal> valuesByKey = Maps.newHashMap();
+
+    public void add(final InvoiceItemForLease invoiceItem) {
+        final Key key = new Key(invoiceItem.getLeaseTerm(), invoiceItem.getStartDate(), invoiceItem.getEndDate());
+        final BigDecimal value = valuesByKey.get(key);
+        valuesByKey.put(key, value == null ? invoiceItem.getNetAmount() : value.add(invoiceItem.getNetAmount()));
+    }
+
+    /**
+     * Equivalent of {@link InvoiceItemsForLease#invoicedValue(LeaseTerm, LocalDateInterval)}.
+     */
+    public BigDecimal invoicedValue(final LeaseTerm leaseTerm, final LocalDateInterval interval) {
+        final BigDecimal value = valuesByKey.get(new Key(leaseTerm, interval.startDate(), interval.endDate()));
+        return value == null ? new BigDecimal(0) : value;
+    }
+
+    // //////////////////////////////////////
+
+    private static final class Key {
+
+        private final LeaseTerm leaseTerm;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+
+        Key(final LeaseTerm leaseTerm, final LocalDate startDate, final LocalDate endDate) {
+            this.leaseTerm = leaseTerm;
+            this.startDate = startDate;
+            this.endDate = endDate;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return leaseTerm == other.leaseTerm
+                    && Objects.equal(startDate, other.startDate)
+                    && Objects.equal(endDate, other.endDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(System.identityHashCode(leaseTerm), startDate, endDate);
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import com.google.common.collect.Maps;
+
+import org.joda.time.LocalDate;
+
+import org.estatio.dom.asset.Unit;
+import org.estatio.dom.charge.Charge;
+import org.estatio.dom.lease.Lease;
+import org.estatio.dom.lease.LeaseItem;
+import org.estatio.dom.party.Party;
+import org.estatio.dom.tax.Tax;
+
+/**
+ * What the invoice items of a {@link Lease} have in common during an invoice
+ * run: the seller and buyer, the unit, the charge and tax of each lease item
+ * and the tax percentages on the due dates. Resolved once per lease rather
+ * than for every item.
+ *
+ * <p>
+ * Like the {@link InvoiceBatch batch}, a snapshot is not thread-safe and
+ * belongs to the chunk of the run the lease is calculated in.
+ *
+ * @see InvoiceRunContext#snapshotOf(Lease)
+ */
+public class LeaseInvoicingSnapshot {
+
+    private final Lease lease;
+    private final Party seller;
+    private final Party buyer;
+    private final Unit unit;
+
+    private final Map<LeaseItem, Charge> chargesByItem = Maps.newHashMap();
+    private final Map<LeaseItem, Tax> taxesByItem = Maps.newHashMap();
+    private final Map<Tax, Map<LocalDate, BigDecimal>> percentagesByTax = Maps.newHashMap();
+
+    public LeaseInvoicingSnapshot(final Lease lease) {
+        this.lease = lease;
+        this.seller = lease.getPrimaryParty();
+        this.buyer = lease.getSecondaryParty();
+        // assumes only one occupancy per lease...
+        this.unit = lease.getOccupancies().first().getUnit();
+    }
+
+    public Lease getLease() {
+        return lease;
+    }
+
+    public Party getSeller() {
+        return seller;
+    }
+
+    public Party getBuyer() {
+        return buyer;
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    // //////////////////////////////////////
+
+    public Charge chargeOf(final LeaseItem leaseItem) {
+        if (!chargesByItem.containsKey(leaseItem)) {
+            chargesByItem.put(leaseItem, leaseItem.getCharge());
+        }
+        return chargesByItem.get(leaseItem);
+    }
+
+    /**
+     * The {@link LeaseItem#getEffectiveTax() effective tax} of the item.
+     */
+    public Tax taxOf(final LeaseItem leaseItem) {
+        if (!taxesByItem.containsKey(leaseItem)) {
+            taxesByItem.put(leaseItem, leaseItem.getEffectiveTax());
+        }
+        return taxesByItem.get(leaseItem);
+    }
+
+    /**
+     * The {@link Tax#percentageFor(LocalDate) percentage} of the tax on the
+     * date, <tt>null</tt> if there is no tax or no rate on that date.
+     */
+    public BigDecimal taxPercentageFor(final Tax tax, final LocalDate dueDate) {
+        if (tax == null) {
+            return null;
+        }
+        Map<LocalDate, BigDecimal> percentages = percentagesByTax.get(tax);
+        if (percentages == null) {
+            percentages = Maps.newHashMap();
+            percentagesByTax.put(tax, percentages);
+        }
+        if (!percentages.containsKey(dueDate)) {
+            percentages.put(dueDate, tax.percentageFor(dueDate));
+        }
+        return percentages.get(dueDate);
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import javax.jdo.annotations.IdGeneratorStrategy;
+import javax.jdo.annotations.IdentityType;
+import javax.jdo.annotations.VersionStrategy;
+
+import org.isisaddons.module.security.dom.tenancy.ApplicationTenancy;
+
+import org.apache.isis.applib.annotation.DomainObject;
+import org.apache.isis.applib.annotation.Editing;
+import org.apache.isis.applib.annotation.Property;
+import org.apache.isis.applib.annotation.PropertyLayout;
+import org.apache.isis.applib.annotation.Title;
+import org.apache.isis.applib.annotation.Where;
+
+import org.estatio.dom.EstatioDomainObject;
+import org.estatio.dom.JdoColumnLength;
+import org.estatio.dom.apptenancy.WithApplicationTenancyPropertyLocal;
+import org.estatio.dom.lease.LeaseTerm;
+
+/**
+ * Journal entry recording that a {@link LeaseTerm} has changed since it was
+ * last calculated, either directly or through one of its inputs (index values,
+ * tenancy dates, tax rates).
+ *
+ * <p>
+ * A {@link InvoiceRunType#DELTA_RUN delta run} only calculates the terms that
+ * have an entry, and removes the entries of the terms it has calculated.
+ *
+ * @see LeaseTermChanges
+ */
+@javax.jdo.annotations.PersistenceCapable(identityType = IdentityType.DATASTORE)
+@javax.jdo.annotations.DatastoreIdentity(
+        strategy = IdGeneratorStrategy.IDENTITY,
+        column = "id")
+@javax.jdo.annotations.Version(
+        strategy = VersionStrategy.VERSION_NUMBER,
+        column = "version")
+@javax.jdo.annotations.Indices({
+        @javax.jdo.annotations.Index(
+                name = "LeaseTermChange_leaseTerm_IDX",
+                members = { "leaseTerm" })
+})
+@javax.jdo.annotations.Queries({
+        @javax.jdo.annotations.Query(
+                name = "findByLeaseTerm", language = "JDOQL",
+                value = "SELECT "
+                        + "FROM org.estatio.dom.lease.invoicing.LeaseTermChange "
+                        + "WHERE leaseTerm == :leaseTerm"),
+        @javax.jdo.annotations.Query(
+                name = "findByLeases", language = "JDOQL",
+                value = "SELECT "
+                        + "FROM org.estatio.dom.lease.invoicing.LeaseTermChange "
+                        + "WHERE :leases.contains(leaseTerm.leaseItem.lease)")
+})
+@DomainObject(editing = Editing.DISABLED)
+public class LeaseTermChange
+        extends EstatioDomainObject<LeaseTermChange>
+        implements WithApplicationTenancyPropertyLocal {
+
+    public LeaseTermChange() {
+        super("leaseTerm, reason");
+    }
+
+    // //////////////////////////////////////
+
+    @PropertyLayout(
+            named = "Application Level",
+            describedAs = "Determines those users for whom this object is available to view and/or modify."
+    )
+    public ApplicationTenancy getApplicationTenancy() {
+        return getLeaseTerm().getApplicationTenancy();
+    }
+
+    // //////////////////////////////////////
+
+    private LeaseTerm leaseTerm;
+
+    @javax.jdo.annotations.Column(name = "leaseTermId", allowsNull = "false")
+    @Property(hidden = Where.PARENTED_TABLES)
+    @Title(sequence = "1", append = ":")
+    public LeaseTerm getLeaseTerm() {
+        return leaseTerm;
+    }
+
+    public void setLeaseTerm(final LeaseTerm leaseTerm) {
+        this.leaseTerm = leaseTerm;
+    }
+
+    // //////////////////////////////////////
+
+    private String reason;
+
+    @javax.jdo.annotations.Column(allowsNull = "false", length = JdoColumnLength.DESCRIPTION)
+    @Title(sequence = "2")
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(final String reason) {
+        this.reason = reason;
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.util.List;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+import org.estatio.dom.lease.Lease;
+import org.estatio.dom.lease.LeaseTerm;
+
+/**
+ * The {@link LeaseTermChange changes} of the leases of a chunk of an invoice
+ * run, indexed by term and by lease. A {@link InvoiceRunType#DELTA_RUN delta
+ * run} works through them; every run removes those of the leases it
+ * calculates.
+ */
+public class LeaseTermChangeSet {
+
+    private final ListMultimap<LeaseTerm, LeaseTermChange> changesByTerm = ArrayListMultimap.create();
+    private final ListMultimap<Lease, LeaseTermChange> changesByLease = ArrayListMultimap.create();
+
+    public LeaseTermChangeSet() {
+    }
+
+    public LeaseTermChangeSet(final List<LeaseTermChange> changes) {
+        addAll(changes);
+    }
+
+    /**
+     * Adds the changes, ignoring those already in the set.
+     */
+    public void addAll(final List<LeaseTermChange> changes) {
+        for (LeaseTermChange change : changes) {
+            if (changesByTerm.containsEntry(change.getLeaseTerm(), change)) {
+                continue;
+            }
+            changesByTerm.put(change.getLeaseTerm(), change);
+            changesByLease.put(change.getLeaseTerm().getLeaseItem().getLease(), change);
+        }
+    }
+
+    public boolean contains(final Lease lease) {
+        return changesByLease.containsKey(lease);
+    }
+
+    public boolean contains(final LeaseTerm leaseTerm) {
+        return changesByTerm.containsKey(leaseTerm);
+    }
+
+    public List<LeaseTermChange> changesOf(final LeaseTerm leaseTerm) {
+        return changesByTerm.get(leaseTerm);
+    }
+
+    public List<LeaseTermChange> changesOf(final Lease lease) {
+        return changesByLease.get(lease);
+    }
+
+}
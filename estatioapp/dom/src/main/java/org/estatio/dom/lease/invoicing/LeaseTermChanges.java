@@ -0,0 +1,210 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.eventbus.Subscribe;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.eventbus.AbstractDomainEvent;
+
+import org.estatio.dom.UdoDomainRepositoryAndFactory;
+import org.estatio.dom.index.IndexValue;
+import org.estatio.dom.lease.Lease;
+import org.estatio.dom.lease.LeaseItem;
+import org.estatio.dom.lease.LeaseTerm;
+import org.estatio.dom.lease.LeaseTerms;
+import org.estatio.dom.lease.LeaseTermsForIndexable;
+import org.estatio.dom.tax.TaxRate;
+
+/**
+ * The journal of {@link LeaseTermChange changed} lease terms, fed by the
+ * domain events of the objects that a calculation depends on.
+ */
+@DomainService(nature = NatureOfService.DOMAIN, repositoryFor = LeaseTermChange.class)
+public class LeaseTermChanges extends UdoDomainRepositoryAndFactory<LeaseTermChange> {
+
+    public LeaseTermChanges() {
+        super(LeaseTermChanges.class, LeaseTermChange.class);
+    }
+
+    // //////////////////////////////////////
+
+    /**
+     * Records that the term has changed, unless it is already in the journal,
+     * and invalidates its cached calculation results.
+     */
+    @Programmatic
+    public void record(final LeaseTerm leaseTerm, final String reason) {
+        record(Collections.singletonList(leaseTerm), reason);
+    }
+
+    /**
+     * Records that the terms have changed, except those already in the
+     * journal, and invalidates their cached calculation results. The journal
+     * entries of the leases of the terms are loaded with one query per chunk
+     * of leases, rather than one query per term.
+     */
+    @Programmatic
+    public void record(final Collection<? extends LeaseTerm> leaseTerms, final String reason) {
+        final Set<LeaseTerm> termsToRecord = Sets.newLinkedHashSet();
+        final Set<Lease> leases = Sets.newLinkedHashSet();
+        for (LeaseTerm leaseTerm : leaseTerms) {
+            if (leaseTerm == null) {
+                continue;
+            }
+            leaseTerm.invalidateCalculationResults();
+            termsToRecord.add(leaseTerm);
+            leases.add(leaseTerm.getLeaseItem().getLease());
+        }
+        if (termsToRecord.isEmpty()) {
+            return;
+        }
+        for (List<Lease> chunk : Lists.partition(Lists.newArrayList(leases), IN_PARAMETER_CHUNK_SIZE)) {
+            for (LeaseTermChange change : findByLeases(chunk)) {
+                termsToRecord.remove(change.getLeaseTerm());
+            }
+        }
+        for (LeaseTerm leaseTerm : termsToRecord) {
+            newChange(leaseTerm, reason);
+        }
+    }
+
+    /**
+     * Records a term that has just been created, so that a delta run
+     * invoices it too. A new term has no entry yet, so the journal is not
+     * queried.
+     */
+    @Programmatic
+    public void recordNew(final LeaseTerm leaseTerm) {
+        newChange(leaseTerm, "Lease term created");
+    }
+
+    private void newChange(final LeaseTerm leaseTerm, final String reason) {
+        final LeaseTermChange change = newTransientInstance();
+        change.setLeaseTerm(leaseTerm);
+        change.setReason(reason);
+        persistIfNotAlready(change);
+    }
+
+    @Programmatic
+    public List<LeaseTermChange> findByLeases(final List<Lease> leases) {
+        return allMatches("findByLeases", "leases", leases);
+    }
+
+    /**
+     * The journal entries of the leases, loaded with one query per chunk of
+     * leases.
+     */
+    @Programmatic
+    public LeaseTermChangeSet changeSetFor(final List<Lease> leases) {
+        final LeaseTermChangeSet changeSet = new LeaseTermChangeSet();
+        for (List<Lease> chunk : Lists.partition(leases, IN_PARAMETER_CHUNK_SIZE)) {
+            changeSet.addAll(findByLeases(chunk));
+        }
+        return changeSet;
+    }
+
+    @Programmatic
+    public void remove(final List<LeaseTermChange> changes) {
+        for (LeaseTermChange change : changes) {
+            getContainer().remove(change);
+        }
+    }
+
+    /**
+     * Removes the journal entries of a term, before the term itself is
+     * removed.
+     */
+    @Programmatic
+    public void removeFor(final LeaseTerm leaseTerm) {
+        remove(allMatches("findByLeaseTerm", "leaseTerm", leaseTerm));
+    }
+
+    // //////////////////////////////////////
+
+    @Programmatic
+    @Subscribe
+    public void on(final IndexValue.UpdateEvent ev) {
+        // not EXECUTED, the index value may have been removed by then
+        if (ev.getEventPhase() == null || ev.getEventPhase() == AbstractDomainEvent.Phase.EXECUTING) {
+            final IndexValue indexValue = ev.getSource();
+            record(leaseTermsForIndexable.findByIndexAndDate(indexValue.getIndexBase().getIndex(), indexValue.getStartDate()), "Index value changed");
+        }
+    }
+
+    @Programmatic
+    @Subscribe
+    public void on(final Lease.ChangeDatesEvent ev) {
+        switch (ev.getEventPhase()) {
+        case EXECUTED:
+            final List<LeaseTerm> terms = Lists.newArrayList();
+            for (LeaseItem leaseItem : ev.getSource().getItems()) {
+                terms.addAll(leaseItem.getTerms());
+            }
+            record(terms, "Tenancy dates changed");
+            break;
+        default:
+            break;
+        }
+    }
+
+    @Programmatic
+    @Subscribe
+    public void on(final LeaseTerm.ChangeEvent ev) {
+        switch (ev.getEventPhase()) {
+        case EXECUTED:
+            // changing the dates of a term also adjusts its neighbours
+            final LeaseTerm term = ev.getSource();
+            record(Arrays.asList(term, term.getPrevious(), term.getNext()), "Lease term changed");
+            break;
+        default:
+            break;
+        }
+    }
+
+    @Programmatic
+    @Subscribe
+    public void on(final TaxRate.ChangeEvent ev) {
+        if (ev.getEventPhase() == null || ev.getEventPhase() == AbstractDomainEvent.Phase.EXECUTED) {
+            final TaxRate taxRate = ev.getSource();
+            record(leaseTerms.findByTaxAndEndDateNotBefore(taxRate.getTax(), taxRate.getStartDate()), "Tax rate changed");
+        }
+    }
+
+    // //////////////////////////////////////
+
+    @Inject
+    LeaseTerms leaseTerms;
+
+    @Inject
+    LeaseTermsForIndexable leaseTermsForIndexable;
+
+}
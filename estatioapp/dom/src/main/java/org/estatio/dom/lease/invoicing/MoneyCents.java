@@ -0,0 +1,98 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money amounts of the invoice calculation held as a <tt>long</tt> number of
+ * cents.
+ *
+ * <p>
+ * {@link #multiply(BigDecimal, BigDecimal)} gives exactly the same result as
+ * <tt>value.multiply(factor).setScale(2, RoundingMode.HALF_UP)</tt>, but
+ * works on the unscaled longs whenever the product fits, only falling back to
+ * {@link BigDecimal} arithmetic when it does not.
+ */
+final class MoneyCents {
+
+    private static final int SCALE = 2;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        long power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
+    private MoneyCents() {
+    }
+
+    /**
+     * The cents of the product of a value and a factor, rounded half up;
+     * <tt>0</tt> if either of them is <tt>null</tt>.
+     */
+    static long multiply(final BigDecimal value, final BigDecimal factor) {
+        if (value == null || factor == null) {
+            return 0;
+        }
+        if (value.unscaledValue().bitLength() < 64 && factor.unscaledValue().bitLength() < 64) {
+            try {
+                return rescale(
+                        Math.multiplyExact(value.unscaledValue().longValue(), factor.unscaledValue().longValue()),
+                        value.scale() + factor.scale());
+            } catch (ArithmeticException e) {
+                // product does not fit in a long, fall through
+            }
+        }
+        return value.multiply(factor).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * The cents of an amount, rounded half up.
+     */
+    static long of(final BigDecimal amount) {
+        return amount == null ? 0 : multiply(amount, BigDecimal.ONE);
+    }
+
+    static BigDecimal toBigDecimal(final long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    private static long rescale(final long unscaled, final int scale) {
+        if (scale <= SCALE) {
+            if (SCALE - scale >= POWERS_OF_TEN.length) {
+                throw new ArithmeticException("Overflow");
+            }
+            return Math.multiplyExact(unscaled, POWERS_OF_TEN[SCALE - scale]);
+        }
+        if (scale - SCALE >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Underflow");
+        }
+        final long divisor = POWERS_OF_TEN[scale - SCALE];
+        final long quotient = unscaled / divisor;
+        final long remainder = Math.abs(unscaled % divisor);
+        // half up: round away from zero when the discarded part is at least half
+        return remainder >= divisor - remainder ? quotient + Long.signum(unscaled) : quotient;
+    }
+}
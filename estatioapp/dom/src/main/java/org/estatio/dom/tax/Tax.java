@@ -200,8 +200,15 @@ public class Tax
 
     // //////////////////////////////////////
 
+    /**
+     * The percentage of the rate on the date, looked up in the
+     * {@link TaxRateTimeline timeline} of this tax where available.
+     */
     @Programmatic
     public BigDecimal percentageFor(final LocalDate date) {
+        if (taxRateTimelines != null) {
+            return taxRateTimelines.timelineFor(this).percentageFor(date);
+        }
         TaxRate rate = taxRateFor(date);
         if (rate == null) {
             return null;
@@ -217,4 +224,10 @@ public class Tax
         this.taxRates = taxRates;
     }
 
+    private TaxRateTimelines taxRateTimelines;
+
+    public final void injectTaxRateTimelines(final TaxRateTimelines taxRateTimelines) {
+        this.taxRateTimelines = taxRateTimelines;
+    }
+
 }
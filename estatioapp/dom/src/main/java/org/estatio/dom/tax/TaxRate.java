@@ -23,6 +23,7 @@ import javax.jdo.annotations.IdGeneratorStrategy;
 import javax.jdo.annotations.IdentityType;
 import javax.jdo.annotations.VersionStrategy;
 import org.joda.time.LocalDate;
+import org.apache.isis.applib.Identifier;
 import org.apache.isis.applib.annotation.Action;
 import org.apache.isis.applib.annotation.DomainObject;
 import org.apache.isis.applib.annotation.Editing;
@@ -35,6 +36,7 @@ import org.apache.isis.applib.annotation.PropertyLayout;
 import org.apache.isis.applib.annotation.SemanticsOf;
 import org.apache.isis.applib.annotation.Title;
 import org.apache.isis.applib.annotation.Where;
+import org.apache.isis.applib.services.eventbus.ActionDomainEvent;
 import org.isisaddons.module.security.dom.tenancy.ApplicationTenancy;
 import org.estatio.dom.Chained;
 import org.estatio.dom.EstatioDomainObject;
@@ -139,7 +141,7 @@ public class TaxRate
     }
 
     @Override
-    @Action(semantics = SemanticsOf.IDEMPOTENT)
+    @Action(semantics = SemanticsOf.IDEMPOTENT, domainEvent = ChangeEvent.class)
     public TaxRate changeDates(
             final @ParameterLayout(named = "Start Date") @Parameter(optionality = Optionality.OPTIONAL) LocalDate startDate,
             final @ParameterLayout(named = "End Date") @Parameter(optionality = Optionality.OPTIONAL) LocalDate endDate) {
@@ -270,6 +272,7 @@ public class TaxRate
         return rate;
     }
 
+    @Action(domainEvent = ChangeEvent.class)
     public TaxRate change(
             final @ParameterLayout(named = "Tax") Tax tax,
             final @ParameterLayout(named = "Percentage") @Parameter(optionality = Optionality.OPTIONAL) BigDecimal percentage,
@@ -293,4 +296,21 @@ public class TaxRate
         return getExternalReference();
     }
 
+    // //////////////////////////////////////
+
+    /**
+     * Posted when the dates or the percentage of a rate change, and when a
+     * new rate is created.
+     */
+    public static class ChangeEvent extends ActionDomainEvent<TaxRate> {
+        private static final long serialVersionUID = 1L;
+
+        public ChangeEvent(
+                final TaxRate source,
+                final Identifier identifier,
+                final Object... arguments) {
+            super(source, identifier, arguments);
+        }
+    }
+
 }
@@ -0,0 +1,139 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.tax;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Ordering;
+
+import org.joda.time.LocalDate;
+
+/**
+ * An immutable snapshot of the {@link TaxRate rates} of a {@link Tax}, ordered
+ * by start date, to look up the percentage on a date without querying.
+ *
+ * <p>
+ * Holds values only (no entities), so that a timeline can be shared between
+ * sessions and threads; see {@link TaxRateTimelines}.
+ */
+public final class TaxRateTimeline {
+
+    private static final Ordering<TaxRate> BY_START_DATE = Ordering.<LocalDate> natural().nullsFirst()
+            .onResultOf(new Function<TaxRate, LocalDate>() {
+                @Override
+                public LocalDate apply(final TaxRate rate) {
+                    return rate.getStartDate();
+                }
+            });
+
+    private final String taxReference;
+    private final long version;
+    private final LocalDate[] startDates;
+    private final LocalDate[] endDates;
+    private final BigDecimal[] percentages;
+
+    private TaxRateTimeline(
+            final String taxReference,
+            final long version,
+            final LocalDate[] startDates,
+            final LocalDate[] endDates,
+            final BigDecimal[] percentages) {
+        this.taxReference = taxReference;
+        this.version = version;
+        this.startDates = startDates;
+        this.endDates = endDates;
+        this.percentages = percentages;
+    }
+
+    /**
+     * Builds the timeline from the rates of the tax; a rate without an end
+     * date ends the day before its {@link TaxRate#getNext() next} rate starts.
+     */
+    public static TaxRateTimeline of(final Tax tax, final long version) {
+        final List<TaxRate> rates = BY_START_DATE.sortedCopy(tax.getRates());
+        final int size = rates.size();
+        final LocalDate[] startDates = new LocalDate[size];
+        final LocalDate[] endDates = new LocalDate[size];
+        final BigDecimal[] percentages = new BigDecimal[size];
+        int i = 0;
+        for (TaxRate rate : rates) {
+            startDates[i] = rate.getStartDate();
+            endDates[i] = endDateOf(rate);
+            percentages[i] = rate.getPercentage();
+            i++;
+        }
+        return new TaxRateTimeline(tax.getReference(), version, startDates, endDates, percentages);
+    }
+
+    private static LocalDate endDateOf(final TaxRate rate) {
+        if (rate.getEndDate() != null) {
+            return rate.getEndDate();
+        }
+        final TaxRate next = rate.getNext();
+        if (next == null || next.getStartDate() == null) {
+            return null;
+        }
+        return next.getStartDate().minusDays(1);
+    }
+
+    public String getTaxReference() {
+        return taxReference;
+    }
+
+    /**
+     * The version of the rates this timeline was built from.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return startDates.length;
+    }
+
+    /**
+     * The percentage of the rate active on the date, or <tt>null</tt> if
+     * there is none.
+     */
+    public BigDecimal percentageFor(final LocalDate date) {
+        if (date == null) {
+            return null;
+        }
+        // binary search for the last rate that starts on or before the date
+        int low = 0;
+        int high = startDates.length - 1;
+        int found = -1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (startDates[mid] == null || !startDates[mid].isAfter(date)) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (found < 0 || endDates[found] != null && date.isAfter(endDates[found])) {
+            return null;
+        }
+        return percentages[found];
+    }
+
+}
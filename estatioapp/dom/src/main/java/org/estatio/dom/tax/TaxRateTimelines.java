@@ -0,0 +1,164 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.tax;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+
+import com.google.common.collect.Sets;
+import com.google.common.eventbus.Subscribe;
+
+import org.apache.isis.applib.annotation.DomainService;
+import org.apache.isis.applib.annotation.NatureOfService;
+import org.apache.isis.applib.annotation.Programmatic;
+import org.apache.isis.applib.services.eventbus.AbstractDomainEvent;
+
+import org.estatio.dom.UdoDomainService;
+
+/**
+ * Shares the {@link TaxRateTimeline timelines} of the taxes between sessions
+ * and threads, so that looking up a percentage does not query the rates.
+ *
+ * <p>
+ * A timeline is discarded when a {@link TaxRate.ChangeEvent rate changes}.
+ * Until the request that changed it ends (and so its transaction has been
+ * committed or aborted), timelines of that tax are built but not shared, so
+ * that other sessions never see rates that have not been committed.
+ */
+@DomainService(nature = NatureOfService.DOMAIN)
+public class TaxRateTimelines extends UdoDomainService<TaxRateTimelines> {
+
+    private final ConcurrentMap<String, TaxRateTimeline> timelines = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> pendingChanges = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    public TaxRateTimelines() {
+        super(TaxRateTimelines.class);
+    }
+
+    // //////////////////////////////////////
+
+    @Programmatic
+    public TaxRateTimeline timelineFor(final Tax tax) {
+        final String reference = tax.getReference();
+        final TaxRateTimeline timeline = timelines.get(reference);
+        if (timeline != null) {
+            return timeline;
+        }
+        final long currentVersion = version.get();
+        final TaxRateTimeline newTimeline = TaxRateTimeline.of(tax, currentVersion);
+        if (!pendingChanges.containsKey(reference)) {
+            timelines.putIfAbsent(reference, newTimeline);
+            // a change since reading the version may have been missed
+            if (version.get() != currentVersion) {
+                timelines.remove(reference, newTimeline);
+            }
+        }
+        return newTimeline;
+    }
+
+    // //////////////////////////////////////
+
+    /**
+     * Discards the timelines of both the tax of the rate before the change
+     * (captured while executing) and after it, as
+     * {@link TaxRate#change(Tax, java.math.BigDecimal, String) changing} a
+     * rate can move it to another tax.
+     */
+    @Programmatic
+    @Subscribe
+    public void on(final TaxRate.ChangeEvent ev) {
+        if (ev.getEventPhase() == null
+                || ev.getEventPhase() == AbstractDomainEvent.Phase.EXECUTING
+                || ev.getEventPhase() == AbstractDomainEvent.Phase.EXECUTED) {
+            changed(ev.getSource().getTax());
+        }
+    }
+
+    private void changed(final Tax tax) {
+        if (tax == null) {
+            return;
+        }
+        final String reference = tax.getReference();
+        if (pendingChangesOfRequest.add(reference)) {
+            begin(reference);
+        }
+        invalidate(reference);
+    }
+
+    synchronized void begin(final String reference) {
+        final Integer count = pendingChanges.get(reference);
+        pendingChanges.put(reference, count == null ? 1 : count + 1);
+    }
+
+    synchronized void end(final String reference) {
+        final Integer count = pendingChanges.get(reference);
+        if (count == null || count <= 1) {
+            pendingChanges.remove(reference);
+        } else {
+            pendingChanges.put(reference, count - 1);
+        }
+        invalidate(reference);
+    }
+
+    private void invalidate(final String reference) {
+        version.incrementAndGet();
+        timelines.remove(reference);
+    }
+
+    // //////////////////////////////////////
+
+    /**
+     * The taxes whose rates were changed in the current request.
+     */
+    @DomainService(nature = NatureOfService.DOMAIN)
+    @RequestScoped
+    public static class PendingChanges {
+
+        private final Set<String> references = Sets.newHashSet();
+
+        @Programmatic
+        public boolean add(final String reference) {
+            return references.add(reference);
+        }
+
+        @Programmatic
+        @PreDestroy
+        public void endRequest() {
+            for (String reference : references) {
+                taxRateTimelines.end(reference);
+            }
+            references.clear();
+        }
+
+        @Inject
+        TaxRateTimelines taxRateTimelines;
+
+    }
+
+    @Inject
+    PendingChanges pendingChangesOfRequest;
+
+}
@@ -21,6 +21,8 @@ package org.estatio.dom.tax;
 import java.math.BigDecimal;
 import java.util.List;
 
+import javax.inject.Inject;
+
 import org.joda.time.LocalDate;
 
 import org.apache.isis.applib.annotation.Action;
@@ -29,6 +31,7 @@ import org.apache.isis.applib.annotation.DomainServiceLayout;
 import org.apache.isis.applib.annotation.MemberOrder;
 import org.apache.isis.applib.annotation.Programmatic;
 import org.apache.isis.applib.annotation.SemanticsOf;
+import org.apache.isis.applib.services.eventbus.EventBusService;
 
 import org.estatio.dom.UdoDomainRepositoryAndFactory;
 
@@ -74,6 +77,7 @@ public class TaxRates extends UdoDomainRepositoryAndFactory<TaxRate> {
             currentRate.modifyNext(rate);
             rate.modifyNext(currentNextRate);
         }
+        eventBusService.post(new TaxRate.ChangeEvent(rate, null, (Object[]) null));
         return rate;
     }
 
@@ -82,4 +86,9 @@ public class TaxRates extends UdoDomainRepositoryAndFactory<TaxRate> {
         return firstMatch("findByTaxAndDate", "tax", tax, "date", date);
     }
 
+    // //////////////////////////////////////
+
+    @Inject
+    EventBusService eventBusService;
+
 }
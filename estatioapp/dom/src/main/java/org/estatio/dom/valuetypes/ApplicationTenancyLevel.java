@@ -18,24 +18,44 @@
  */
 package org.estatio.dom.valuetypes;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicate;
 import com.google.common.base.Splitter;
-import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import org.isisaddons.module.security.dom.tenancy.ApplicationTenancy;
 import org.isisaddons.module.security.dom.tenancy.WithApplicationTenancy;
 
+/**
+ * An immutable tenancy level, parsed once from its path.
+ *
+ * <p>
+ *     The levels obtained through {@link #of(String)} are interned, and each level holds its parent and its
+ *     ancestors (indexed by depth), so that the hierarchy checks compare levels rather than re-parse paths.
+ * </p>
+ */
 public final class ApplicationTenancyLevel implements Comparable<ApplicationTenancyLevel> {
 
+    private static final ConcurrentMap<String, ApplicationTenancyLevel> LEVELS = new ConcurrentHashMap<>();
+
+    private static final ApplicationTenancyLevel[] NO_ANCESTORS = new ApplicationTenancyLevel[0];
+
     public static ApplicationTenancyLevel of(final String path) {
         if (path == null) {
             return null;
         }
-        return new ApplicationTenancyLevel(path);
+        final ApplicationTenancyLevel level = LEVELS.get(path);
+        if (level != null) {
+            return level;
+        }
+        final ApplicationTenancyLevel newLevel = new ApplicationTenancyLevel(path);
+        final ApplicationTenancyLevel existing = LEVELS.putIfAbsent(path, newLevel);
+        return existing != null ? existing : newLevel;
     }
 
     public static ApplicationTenancyLevel of(final ApplicationTenancy applicationTenancy) {
@@ -55,6 +75,15 @@ public final class ApplicationTenancyLevel implements Comparable<ApplicationTena
 
     public ApplicationTenancyLevel(final String path) {
         this.path = path;
+        this.parts = Iterables.toArray(Splitter.on('/').omitEmptyStrings().split(path), String.class);
+        if (parts.length == 0) {
+            this.parent = null;
+            this.ancestors = NO_ANCESTORS;
+        } else {
+            this.parent = of("/" + Joiner.on("/").join(Arrays.asList(parts).subList(0, parts.length - 1)));
+            this.ancestors = Arrays.copyOf(parent.ancestors, parent.ancestors.length + 1);
+            this.ancestors[parent.ancestors.length] = parent;
+        }
     }
 
     //region > path
@@ -66,6 +95,27 @@ public final class ApplicationTenancyLevel implements Comparable<ApplicationTena
 
     //endregion
 
+    //region > parts, parent, ancestors (precomputed)
+
+    private final String[] parts;
+
+    private final ApplicationTenancyLevel parent;
+
+    /**
+     * The ancestors of this level, from the root down to the {@link #parent() parent}; the ancestor at index
+     * <tt>i</tt> has <tt>i</tt> parts.
+     */
+    private final ApplicationTenancyLevel[] ancestors;
+
+    /**
+     * The number of parts of the path, for example 0 for "/" and 2 for "/a/bb".
+     */
+    public int getDepth() {
+        return parts.length;
+    }
+
+    //endregion
+
     //region > parentOf, childOf, peerOf
 
     public boolean parentOf(final ApplicationTenancyLevel other) {
@@ -81,6 +131,11 @@ public final class ApplicationTenancyLevel implements Comparable<ApplicationTena
     }
 
     private static boolean contains(final ApplicationTenancyLevel container, final ApplicationTenancyLevel contained) {
+        // an interned container is found among the ancestors, anything else is decided by the path prefix
+        if (contained.ancestors.length > container.parts.length
+                && contained.ancestors[container.parts.length] == container) {
+            return true;
+        }
         return contained.path.startsWith(container.path) && contained.path.length() > container.path.length();
     }
     //endregion
@@ -88,13 +143,7 @@ public final class ApplicationTenancyLevel implements Comparable<ApplicationTena
 
     //region > parent
     public ApplicationTenancyLevel parent() {
-        if(path.equals("/")) {
-            return null;
-        }
-        final List<String> parts = getParts();
-        final List<String> strings = parts.subList(0, parts.size() - 1);
-        final String join = Joiner.on("/").join(strings);
-        return new ApplicationTenancyLevel("/" + join);
+        return parent;
     }
 
     public ApplicationTenancyLevel child(final String child) {
@@ -118,13 +167,7 @@ public final class ApplicationTenancyLevel implements Comparable<ApplicationTena
      * </ul>
      */
     List<String> getParts() {
-        return Lists.newArrayList(Iterables.filter(Splitter.on('/').split(path), new Predicate<String>() {
-                    @Override
-                    public boolean apply(final String input) {
-                        return !Strings.isNullOrEmpty(input);
-                    }
-                }
-        ));
+        return Lists.newArrayList(parts);
     }
     //endregion
 
@@ -135,22 +178,22 @@ public final class ApplicationTenancyLevel implements Comparable<ApplicationTena
     }
 
     public boolean isRootOther() {
-        return getParts().size() == 1 && "_".equals(getParts().get(0));
+        return parts.length == 1 && "_".equals(parts[0]);
     }
 
     public boolean isCountry() {
-        return getParts().size() == 1 && !isRootOther();
+        return parts.length == 1 && !isRootOther();
     }
 
 
     public boolean isCountryOther() {
         // /it/_
-        return getParts().size() == 2 && "_".equals(getParts().get(1));
+        return parts.length == 2 && "_".equals(parts[1]);
     }
 
     public boolean isProperty() {
         // /it/CAR
-        return getParts().size() == 2 && !isCountryOther();
+        return parts.length == 2 && !isCountryOther();
     }
 
     public boolean isLocalDefault() {
@@ -160,7 +203,7 @@ public final class ApplicationTenancyLevel implements Comparable<ApplicationTena
 
     public boolean isLocalNamed(final String name) {
         // /it/CAR/xx
-        return getParts().size() == 3 && Objects.equals(name, getParts().get(2));
+        return parts.length == 3 && Objects.equals(name, parts[2]);
     }
 
     public boolean isPropertyOf(final ApplicationTenancyLevel countryLevel) {
@@ -181,7 +224,7 @@ public final class ApplicationTenancyLevel implements Comparable<ApplicationTena
         if(isRootOther()) {
             throw new IllegalArgumentException("Tenancy level is 'root other'.");
         }
-        return "/" + getParts().get(0);
+        return "/" + parts[0];
     }
     //endregion
 
@@ -9,6 +9,7 @@ import org.estatio.dom.budgeting.keytable.KeyTable;
 import org.estatio.dom.budgeting.keytable.KeyTableForTesting;
 import org.estatio.dom.budgeting.keytable.KeyValueMethod;
 import org.estatio.dom.budgeting.schedule.Schedule;
+import org.estatio.dom.budgeting.schedule.ScheduleDistribution;
 import org.estatio.dom.budgeting.scheduleitem.ScheduleItem;
 import org.junit.Test;
 
@@ -144,6 +145,60 @@ public class BudgetCalculationContributionServicesTest {
 
     }
 
+    @Test
+    public void distributionOverUnitsForScheduleIsCachedUntilKeyItemChanges() {
+
+        //given
+        BudgetCalculationContributionServices service = new BudgetCalculationContributionServices();
+        Schedule schedule = new Schedule();
+
+        ScheduleItem scheduleItem = setupScheduleItemForTest("keytable1");
+        scheduleItem.setSchedule(schedule);
+        schedule.getScheduleItems().add(scheduleItem);
+
+        List<BudgetCalculation> budgetCalculations = service.distributionOverUnits(schedule);
+        ScheduleDistribution distribution = schedule.getDistribution();
+
+        //when
+        budgetCalculations.get(2).setValue(BigDecimal.ZERO);
+        List<BudgetCalculation> cachedCalculations = service.distributionOverUnits(schedule);
+
+        //then
+        assertThat(schedule.getDistribution()).isSameAs(distribution);
+        assertThat(cachedCalculations.get(2)).isNotSameAs(budgetCalculations.get(2));
+        assertThat(cachedCalculations.get(2).getValue()).isEqualTo(new BigDecimal(666.67).setScale(2, BigDecimal.ROUND_HALF_UP));
+
+        //when
+        keyItemFor(scheduleItem.getKeyTable(), unit3).changeValue(new BigDecimal(1));
+        List<BudgetCalculation> recalculated = service.distributionOverUnits(schedule);
+
+        //then
+        assertThat(schedule.getDistribution()).isNotSameAs(distribution);
+        assertThat(recalculated.get(2).getValue()).isEqualTo(new BigDecimal(500.00).setScale(2, BigDecimal.ROUND_HALF_UP));
+    }
+
+    @Test
+    public void distributionOverUnitsForScheduleIsRecalculatedWhenBudgetItemChanges() {
+
+        //given
+        BudgetCalculationContributionServices service = new BudgetCalculationContributionServices();
+        Schedule schedule = new Schedule();
+
+        ScheduleItem scheduleItem = setupScheduleItemForTest("keytable1");
+        scheduleItem.setSchedule(schedule);
+        schedule.getScheduleItems().add(scheduleItem);
+
+        service.distributionOverUnits(schedule);
+
+        //when
+        scheduleItem.getBudgetItem().setBudgetedValue(new BigDecimal(2000).setScale(2));
+        List<BudgetCalculation> budgetCalculations = service.distributionOverUnits(schedule);
+
+        //then
+        assertThat(budgetCalculations.get(1).getValue()).isEqualTo(new BigDecimal(666.67).setScale(2, BigDecimal.ROUND_HALF_UP));
+        assertThat(budgetCalculations.get(2).getValue()).isEqualTo(new BigDecimal(1333.33).setScale(2, BigDecimal.ROUND_HALF_UP));
+    }
+
     @Test
     public void mergeTest() {
 
@@ -180,6 +235,8 @@ public class BudgetCalculationContributionServicesTest {
         assertThat(mergedList.get(2).getUnit()).isEqualTo(unit3);
         assertThat(mergedList.get(2).getValue()).isEqualTo(new BigDecimal(3));
         assertThat(mergedList.get(2).getSourceValue()).isEqualTo(new BigDecimal(30));
+        assertThat(budgetCalculation1.getValue()).isEqualTo(new BigDecimal(1));
+        assertThat(budgetCalculation1.getSourceValue()).isEqualTo(new BigDecimal(10));
 
     }
 
@@ -250,6 +307,15 @@ public class BudgetCalculationContributionServicesTest {
         return keyItem;
     }
 
+    private KeyItem keyItemFor(KeyTable keyTable, Unit unit) {
+        for (KeyItem keyItem : keyTable.getItems()) {
+            if (keyItem.getUnit() == unit) {
+                return keyItem;
+            }
+        }
+        return null;
+    }
+
     private KeyTable setupKeyTable(String name, List<KeyItem> keyItems) {
         KeyTable keyTable = new KeyTableForTesting();
         keyTable.setName(name);
@@ -182,6 +182,29 @@ public class AgreementTest {
             assertThat(agreement.findCurrentOrMostRecentParty(tenantArt), is(tenant2));
         }
 
+        @Test
+        public void whenRoleOfTypeStartsInFuture() {
+            addAllRoles();
+            final AgreementRole arTenant3 = new AgreementRole();
+            arTenant3.setType(tenantArt);
+            arTenant3.setParty(tenant1);
+            arTenant3.setStartDate(clockDate.plusMonths(1));
+            arTenant3.injectClockService(mockClockService);
+            agreement.getRoles().add(arTenant3);
+
+            assertThat(agreement.findCurrentOrMostRecentParty(tenantArt), is(tenant2));
+        }
+
+        @Test
+        public void whenRoleAddedAfterLookup() {
+            agreement.getRoles().add(arTenant2);
+            assertThat(agreement.findCurrentOrMostRecentParty(tenantArt), is(tenant2));
+            assertThat(agreement.findCurrentOrMostRecentParty(landlordArt), is(nullValue()));
+
+            agreement.getRoles().add(arLandlord);
+            assertThat(agreement.findCurrentOrMostRecentParty(landlordArt), is(landlord));
+        }
+
         private void addAllRoles() {
             agreement.getRoles().add(arLandlord);
             agreement.getRoles().add(arTenant1);
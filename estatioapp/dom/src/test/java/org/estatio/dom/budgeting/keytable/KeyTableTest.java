@@ -17,17 +17,37 @@
 
 package org.estatio.dom.budgeting.keytable;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jmock.Expectations;
+import org.jmock.auto.Mock;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 
+import org.apache.isis.applib.DomainObjectContainer;
+import org.apache.isis.core.unittestsupport.jmocking.JUnitRuleMockery2;
+
 import org.estatio.dom.AbstractBeanPropertiesTest;
 import org.estatio.dom.asset.Property;
+import org.estatio.dom.asset.Unit;
+import org.estatio.dom.asset.UnitRepository;
 import org.estatio.dom.budgeting.PropertyForTesting;
+import org.estatio.dom.budgeting.keyitem.KeyItem;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
  * Created by jodo on 22/04/15.
  */
 public class KeyTableTest {
 
+    @Rule
+    public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(JUnitRuleMockery2.Mode.INTERFACES_AND_CLASSES);
+
     public static class BeanProperties extends AbstractBeanPropertiesTest {
 
         @Test
@@ -40,4 +60,112 @@ public class KeyTableTest {
 
     }
 
+    public static class GenerateItems extends KeyTableTest {
+
+        @Mock
+        private DomainObjectContainer mockContainer;
+
+        private KeyTable keyTable;
+
+        private Unit unit1;
+        private Unit unit2;
+        private Unit unit3;
+        private Unit unit4;
+
+        private KeyItem item1;
+        private KeyItem item2;
+        private KeyItem item4;
+
+        @Before
+        public void setUp() throws Exception {
+            unit1 = newUnit("UNIT1", 100);
+            unit2 = newUnit("UNIT2", 300);
+            unit3 = newUnit("UNIT3", 100);
+            unit4 = newUnit("UNIT4", 100);
+
+            keyTable = new KeyTableForTesting();
+            keyTable.setContainer(mockContainer);
+            keyTable.setStartDate(new LocalDate(2015, 1, 1));
+            keyTable.setEndDate(new LocalDate(2015, 12, 31));
+            keyTable.setFoundationValueType(FoundationValueType.AREA);
+            keyTable.setKeyValueMethod(KeyValueMethod.PERCENT);
+            keyTable.setNumberOfDigits(2);
+            keyTable.unitRepository = new UnitRepository() {
+                @Override
+                public List<Unit> findByProperty(final Property property) {
+                    return Arrays.asList(unit1, unit2, unit3);
+                }
+            };
+
+            item1 = newKeyItem(unit1, new BigDecimal("100.00"), new BigDecimal("25.00"));
+            item2 = newKeyItem(unit2, new BigDecimal("300.00"), new BigDecimal("60.00"));
+            item4 = newKeyItem(unit4, new BigDecimal("100.00"), new BigDecimal("15.00"));
+        }
+
+        @Test
+        public void onlyChangedItemsAreWritten() throws Exception {
+
+            // expect
+            context.checking(new Expectations() {
+                {
+                    oneOf(mockContainer).removeIfNotAlready(item4);
+                    oneOf(mockContainer).persistIfNotAlready(with(any(KeyItem.class)));
+                }
+            });
+
+            // given
+            final BigDecimal valueOfItem2 = item2.getValue();
+            final int revision = keyTable.getCalculationRevision();
+
+            // when
+            keyTable.generateItems(true);
+
+            // then
+            assertThat(item1.getValue()).isEqualTo(new BigDecimal("20.00"));
+            assertThat(item2.getValue()).isSameAs(valueOfItem2);
+            assertThat(keyTable.getCalculationRevision()).isGreaterThan(revision);
+        }
+
+        @Test
+        public void auditedValueIsClearedWhenValueChanges() throws Exception {
+
+            // expect
+            context.checking(new Expectations() {
+                {
+                    oneOf(mockContainer).removeIfNotAlready(item4);
+                    oneOf(mockContainer).persistIfNotAlready(with(any(KeyItem.class)));
+                }
+            });
+
+            // given
+            item1.setAuditedValue(new BigDecimal("25.00"));
+            item2.setAuditedValue(new BigDecimal("60.00"));
+
+            // when
+            keyTable.generateItems(true);
+
+            // then
+            assertThat(item1.getAuditedValue()).isNull();
+            assertThat(item2.getAuditedValue()).isEqualTo(new BigDecimal("60.00"));
+        }
+
+        private Unit newUnit(final String name, final int area) {
+            Unit unit = new Unit();
+            unit.setName(name);
+            unit.setStartDate(new LocalDate(2010, 1, 1));
+            unit.setArea(new BigDecimal(area));
+            return unit;
+        }
+
+        private KeyItem newKeyItem(final Unit unit, final BigDecimal sourceValue, final BigDecimal value) {
+            KeyItem keyItem = new KeyItem();
+            keyItem.setKeyTable(keyTable);
+            keyItem.setUnit(unit);
+            keyItem.setSourceValue(sourceValue);
+            keyItem.setValue(value);
+            keyTable.getItems().add(keyItem);
+            return keyItem;
+        }
+    }
+
 }
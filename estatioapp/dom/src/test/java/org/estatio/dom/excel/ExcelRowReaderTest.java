@@ -0,0 +1,112 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.excel;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class ExcelRowReaderTest {
+
+    public static class ColumnIndex extends ExcelRowReaderTest {
+
+        @Test
+        public void fromCellReference() {
+            assertThat(ExcelRowReader.columnIndex("A1"), is(0));
+            assertThat(ExcelRowReader.columnIndex("Z10"), is(25));
+            assertThat(ExcelRowReader.columnIndex("AA3"), is(26));
+            assertThat(ExcelRowReader.columnIndex("AB12"), is(27));
+        }
+
+    }
+
+    public static class ReadSheet extends ExcelRowReaderTest {
+
+        private static final String SHEET = ""
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>"
+                + "<row r=\"1\">"
+                + "<c r=\"A1\" t=\"inlineStr\"><is><t>Reference</t></is></c>"
+                + "<c r=\"B1\" t=\"inlineStr\"><is><t>Value Start Date</t></is></c>"
+                + "<c r=\"C1\" t=\"inlineStr\"><is><t>Value</t></is></c>"
+                + "</row>"
+                + "<row r=\"2\">"
+                + "<c r=\"A2\" t=\"inlineStr\"><is><t>ISTAT-FOI</t></is></c>"
+                + "<c r=\"B2\"><v>42005</v></c>"
+                + "<c r=\"C2\"><v>107.09999999999999</v></c>"
+                + "</row>"
+                + "<row r=\"3\"></row>"
+                + "<row r=\"5\">"
+                + "<c r=\"A5\" t=\"inlineStr\"><is><t>ISTAT-FOI</t></is></c>"
+                + "<c r=\"C5\"><v>107.2</v></c>"
+                + "</row>"
+                + "</sheetData></worksheet>";
+
+        @Test
+        public void rowByRow() throws Exception {
+            final List<ExcelRow> rows = Lists.newArrayList();
+            ExcelRowReader.readSheet(
+                    new ByteArrayInputStream(SHEET.getBytes(StandardCharsets.UTF_8)),
+                    null,
+                    new ExcelRowHandler() {
+                        @Override
+                        public void handle(final ExcelRow row) {
+                            rows.add(row);
+                        }
+                    });
+
+            assertThat(rows.size(), is(2));
+            assertThat(rows.get(0).getRowNumber(), is(2));
+            assertThat(rows.get(0).getString("reference"), is("ISTAT-FOI"));
+            assertThat(rows.get(0).getLocalDate("valueStartDate"), is(new LocalDate(2015, 1, 1)));
+            assertThat(rows.get(0).getBigDecimal("value"), is(new BigDecimal("107.1")));
+            assertThat(rows.get(1).getRowNumber(), is(5));
+            assertThat(rows.get(1).getLocalDate("valueStartDate"), is(nullValue()));
+        }
+
+    }
+
+    public static class Row extends ExcelRowReaderTest {
+
+        @Test
+        public void matchesColumnsLoosely() {
+            final ExcelRow row = new ExcelRow(2, ImmutableMap.of("basestartdate", "2015-01-01"));
+            assertThat(row.getLocalDate("baseStartDate"), is(new LocalDate(2015, 1, 1)));
+            assertThat(row.getLocalDate("Base Start Date"), is(new LocalDate(2015, 1, 1)));
+            assertThat(row.getString("unknown"), is(nullValue()));
+        }
+
+        @Test(expected = IllegalArgumentException.class)
+        public void notANumber() {
+            new ExcelRow(2, ImmutableMap.of("value", "abc")).getBigDecimal("value");
+        }
+
+    }
+
+}
@@ -20,6 +20,7 @@ package org.estatio.dom.index;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Arrays;
 import org.isisaddons.module.security.dom.tenancy.ApplicationTenancy;
 import org.jmock.Expectations;
 import org.jmock.auto.Mock;
@@ -102,10 +103,8 @@ public class IndexTest {
         public void happyCase() {
             context.checking(new Expectations() {
                 {
-                    oneOf(mockIndexValues).findIndexValueByIndexAndStartDate(with(equal(index)), with(equal(new LocalDate(2001, 1, 1))));
-                    will(returnValue(iv1));
-                    oneOf(mockIndexValues).findIndexValueByIndexAndStartDate(with(equal(index)), with(equal(new LocalDate(2011, 1, 1))));
-                    will(returnValue(iv2));
+                    oneOf(mockIndexValues).findByIndex(with(equal(index)));
+                    will(returnValue(Arrays.asList(iv2, iv1)));
                 }
             });
             assertEquals(BigDecimal.valueOf(122.2), index.getIndexValueForDate(baseDate));
@@ -125,19 +124,33 @@ public class IndexTest {
         public void happyCase() {
             context.checking(new Expectations() {
                 {
-                    oneOf(mockIndexValues).findIndexValueByIndexAndStartDate(with(equal(index)), with(equal(new LocalDate(2011, 1, 1))));
-                    will(returnValue(iv2));
+                    oneOf(mockIndexValues).findByIndex(with(equal(index)));
+                    will(returnValue(Arrays.asList(iv2, iv1)));
                 }
             });
             assertEquals(BigDecimal.valueOf(1.234), index.getRebaseFactorForDates(baseDate, nextDate));
+            assertEquals(ib2010.factorForDate(new LocalDate(1995, 1, 1)), index.getRebaseFactorForDates(new LocalDate(1995, 1, 1), nextDate));
+        }
+
+        @Test
+        public void reloadedWhenInvalidated() {
+            context.checking(new Expectations() {
+                {
+                    exactly(2).of(mockIndexValues).findByIndex(with(equal(index)));
+                    will(returnValue(Arrays.asList(iv2, iv1)));
+                }
+            });
+            assertEquals(BigDecimal.valueOf(1.234), index.getRebaseFactorForDates(baseDate, nextDate));
+            index.invalidateTimeSeries();
+            assertEquals(BigDecimal.valueOf(1.234), index.getRebaseFactorForDates(baseDate, nextDate));
         }
 
         @Test
         public void withNull() {
             context.checking(new Expectations() {
                 {
-                    oneOf(mockIndexValues).findIndexValueByIndexAndStartDate(with(equal(index)), with(equal(new LocalDate(2011, 1, 1))));
-                    will(returnValue(null));
+                    oneOf(mockIndexValues).findByIndex(with(equal(index)));
+                    will(returnValue(Arrays.asList(iv1)));
                 }
             });
             assertEquals(null, index.getRebaseFactorForDates(baseDate, nextDate));
@@ -152,4 +152,35 @@ public class IndexValuesTest {
 
     }
 
+    public static class OnUpdateEvent extends IndexValuesTest {
+
+        @Mock
+        IndexValues mockIndexValues;
+
+        IndexValue indexValue;
+
+        @Before
+        public void setUpIndexValue() {
+            index.injectIndexValues(mockIndexValues);
+            final IndexBase indexBase = new IndexBase();
+            indexBase.setIndex(index);
+            indexValue = new IndexValue();
+            indexValue.setIndexBase(indexBase);
+        }
+
+        @Test
+        public void invalidatesTimeSeries() {
+            context.checking(new Expectations() {
+                {
+                    exactly(2).of(mockIndexValues).findByIndex(with(equal(index)));
+                    will(returnValue(Arrays.<IndexValue> asList()));
+                }
+            });
+
+            index.getTimeSeries();
+            indexValues.on(new IndexValue.UpdateEvent(indexValue, null, (Object[]) null));
+            index.getTimeSeries();
+        }
+    }
+
 }
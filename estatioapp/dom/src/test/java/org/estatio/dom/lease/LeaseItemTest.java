@@ -54,6 +54,16 @@ public class LeaseItemTest {
 
     LeaseItem leaseItem;
 
+    LeaseTerm newTerm(final int sequence, final LocalDate startDate, final LocalDate endDate) {
+        final LeaseTermForTesting term = new LeaseTermForTesting();
+        term.setLeaseItem(leaseItem);
+        term.setSequence(BigInteger.valueOf(sequence));
+        term.setStartDate(startDate);
+        term.setEndDate(endDate);
+        leaseItem.getTerms().add(term);
+        return term;
+    }
+
     public static class GetCurrentValue extends LeaseItemTest {
 
         private final LocalDate now = LocalDate.now();
@@ -169,6 +179,118 @@ public class LeaseItemTest {
 
     }
 
+    public static class IsVerifiedUntil extends LeaseItemTest {
+
+        private Lease lease;
+
+        @Before
+        public void setUp() throws Exception {
+            lease = new Lease();
+            lease.setStartDate(new LocalDate(2010, 1, 1));
+
+            leaseItem = new LeaseItem();
+            leaseItem.setLease(lease);
+            leaseItem.setType(LeaseItemType.RENT);
+            leaseItem.setStartDate(new LocalDate(2010, 1, 1));
+        }
+
+        @Test
+        public void whenNoTerms() throws Exception {
+            assertThat(leaseItem.isVerifiedUntil(new LocalDate(2012, 1, 1)), is(true));
+        }
+
+        @Test
+        public void whenTermsRunUpToTheDate() throws Exception {
+            newTerm(1, new LocalDate(2010, 1, 1), new LocalDate(2010, 12, 31));
+            newTerm(2, new LocalDate(2011, 1, 1), new LocalDate(2011, 12, 31));
+            assertThat(leaseItem.isVerifiedUntil(new LocalDate(2012, 1, 1)), is(true));
+            assertThat(leaseItem.isVerifiedUntil(new LocalDate(2012, 6, 1)), is(false));
+        }
+
+        @Test
+        public void whenTermsRunUpToTheEndOfTheLease() throws Exception {
+            lease.setTenancyEndDate(new LocalDate(2011, 12, 31));
+            newTerm(1, new LocalDate(2010, 1, 1), new LocalDate(2010, 12, 31));
+            newTerm(2, new LocalDate(2011, 1, 1), new LocalDate(2011, 12, 31));
+            assertThat(leaseItem.isVerifiedUntil(new LocalDate(2015, 1, 1)), is(true));
+        }
+
+        @Test
+        public void whenLastTermStartsAfterTheEndOfTheLease() throws Exception {
+            lease.setTenancyEndDate(new LocalDate(2010, 12, 31));
+            newTerm(1, new LocalDate(2010, 1, 1), new LocalDate(2010, 12, 31));
+            newTerm(2, new LocalDate(2011, 1, 1), new LocalDate(2011, 12, 31));
+            assertThat(leaseItem.isVerifiedUntil(new LocalDate(2011, 1, 1)), is(false));
+        }
+
+        @Test
+        public void whenLastTermIsOpenEnded() throws Exception {
+            newTerm(1, new LocalDate(2010, 1, 1), null);
+            assertThat(leaseItem.isVerifiedUntil(new LocalDate(2011, 1, 1)), is(false));
+        }
+    }
+
+    public static class CurrentTerm extends LeaseItemTest {
+
+        private Lease lease;
+
+        @Before
+        public void setUp() throws Exception {
+            lease = new Lease();
+            lease.setStartDate(new LocalDate(2010, 1, 1));
+
+            leaseItem = new LeaseItem();
+            leaseItem.setLease(lease);
+            leaseItem.setType(LeaseItemType.RENT);
+            leaseItem.setStartDate(new LocalDate(2010, 4, 1));
+        }
+
+        @Test
+        public void whenTermsFollowEachOther() throws Exception {
+            final LeaseTerm term1 = newTerm(1, new LocalDate(2010, 1, 1), new LocalDate(2010, 12, 31));
+            final LeaseTerm term2 = newTerm(2, new LocalDate(2011, 1, 1), new LocalDate(2011, 12, 31));
+            final LeaseTerm term3 = newTerm(3, new LocalDate(2012, 1, 1), null);
+
+            assertThat(leaseItem.currentTerm(new LocalDate(2010, 3, 31)), is(nullValue()));
+            assertThat(leaseItem.currentTerm(new LocalDate(2010, 4, 1)), is(term1));
+            assertThat(leaseItem.currentTerm(new LocalDate(2011, 12, 31)), is(term2));
+            assertThat(leaseItem.currentTerm(new LocalDate(2030, 1, 1)), is(term3));
+            assertThat(leaseItem.currentTerm(null), is(nullValue()));
+
+            assertThat(leaseItem.findTerm(new LocalDate(2011, 1, 1)), is(term2));
+            assertThat(leaseItem.findTerm(new LocalDate(2011, 1, 2)), is(nullValue()));
+        }
+
+        @Test
+        public void whenThereIsAGap() throws Exception {
+            newTerm(1, new LocalDate(2010, 1, 1), new LocalDate(2010, 12, 31));
+            final LeaseTerm term2 = newTerm(2, new LocalDate(2011, 7, 1), new LocalDate(2011, 12, 31));
+
+            assertThat(leaseItem.currentTerm(new LocalDate(2011, 3, 1)), is(nullValue()));
+            assertThat(leaseItem.currentTerm(new LocalDate(2011, 7, 1)), is(term2));
+        }
+
+        @Test
+        public void whenTermsOverlap() throws Exception {
+            final LeaseTerm term1 = newTerm(1, new LocalDate(2010, 1, 1), new LocalDate(2011, 6, 30));
+            newTerm(2, new LocalDate(2011, 1, 1), new LocalDate(2011, 12, 31));
+
+            assertThat(leaseItem.currentTerm(new LocalDate(2011, 3, 1)), is(term1));
+        }
+
+        @Test
+        public void whenDatesOfATermChange() throws Exception {
+            final LeaseTerm term1 = newTerm(1, new LocalDate(2010, 1, 1), new LocalDate(2010, 12, 31));
+            final LeaseTerm term2 = newTerm(2, new LocalDate(2011, 1, 1), new LocalDate(2011, 12, 31));
+            assertThat(leaseItem.currentTerm(new LocalDate(2010, 12, 1)), is(term1));
+
+            term1.modifyEndDate(new LocalDate(2010, 11, 30));
+            term2.modifyStartDate(new LocalDate(2010, 12, 1));
+
+            assertThat(leaseItem.currentTerm(new LocalDate(2010, 12, 1)), is(term2));
+        }
+    }
+
     public static class ToString extends LeaseItemTest {
 
         private Lease lease;
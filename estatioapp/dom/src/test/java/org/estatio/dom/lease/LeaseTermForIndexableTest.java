@@ -19,6 +19,7 @@
 package org.estatio.dom.lease;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 
 import org.jmock.Expectations;
 import org.jmock.auto.Mock;
@@ -146,10 +147,8 @@ public class LeaseTermForIndexableTest {
         public void happyCase() {
             context.checking(new Expectations() {
                 {
-                    allowing(mockIndexValues).findIndexValueByIndexAndStartDate(with(i), with(new LocalDate(2010, 1, 1)));
-                    will(returnValue(iv1));
-                    allowing(mockIndexValues).findIndexValueByIndexAndStartDate(with(i), with(new LocalDate(2011, 1, 1)));
-                    will(returnValue(iv2));
+                    allowing(mockIndexValues).findByIndex(with(i));
+                    will(returnValue(Arrays.asList(iv2, iv1)));
                 }
             });
             term.align();
@@ -160,10 +159,8 @@ public class LeaseTermForIndexableTest {
         public void whenEmptyIndex() {
             context.checking(new Expectations() {
                 {
-                    allowing(mockIndexValues).findIndexValueByIndexAndStartDate(with(i), with(new LocalDate(2010, 1, 1)));
-                    will(returnValue(iv1));
-                    allowing(mockIndexValues).findIndexValueByIndexAndStartDate(with(i), with(new LocalDate(2011, 1, 1)));
-                    will(returnValue(iv2));
+                    allowing(mockIndexValues).findByIndex(with(i));
+                    will(returnValue(Arrays.asList(iv2, iv1)));
                 }
             });
             term.align();
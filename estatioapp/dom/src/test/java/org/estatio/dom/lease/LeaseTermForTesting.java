@@ -19,6 +19,7 @@
 package org.estatio.dom.lease;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import org.joda.time.LocalDate;
 
@@ -49,6 +50,14 @@ public class LeaseTermForTesting extends LeaseTerm {
         return value;
     }
 
+    @Override
+    public List<Object> calculationState() {
+        final List<Object> state = super.calculationState();
+        state.add(value);
+        state.add(adjustedValue);
+        return state;
+    }
+
     // //////////////////////////////////////
 
     private BigDecimal value;
@@ -21,6 +21,7 @@ package org.estatio.dom.lease;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 
@@ -54,6 +55,7 @@ import org.estatio.dom.WithIntervalMutableContractTestAbstract_changeDates;
 import org.estatio.dom.invoice.Invoice;
 import org.estatio.dom.invoice.InvoiceStatus;
 import org.estatio.dom.lease.invoicing.InvoiceItemForLease;
+import org.estatio.dom.lease.invoicing.LeaseTermChanges;
 import org.estatio.dom.valuetypes.AbstractInterval.IntervalEnding;
 import org.estatio.dom.valuetypes.LocalDateInterval;
 import org.estatio.services.clock.ClockService;
@@ -73,6 +75,9 @@ public class LeaseTermTest {
     @Mock
     ClockService mockClockService;
 
+    @Mock
+    LeaseTermChanges mockLeaseTermChanges;
+
     private final LocalDate now = LocalDate.now();
 
     @Before
@@ -87,6 +92,13 @@ public class LeaseTermTest {
                         with(any(LocalDate.class)),
                         with(aNull(LocalDate.class)));
                 will(returnLeaseTerm());
+                allowing(mockLeaseTerms).newLeaseTermWithoutRefresh(
+                        with(any(LeaseItem.class)),
+                        with(any(LeaseTerm.class)),
+                        with(any(LocalDate.class)),
+                        with(any(LocalDate.class)));
+                will(returnLeaseTerm());
+                allowing(mockLeaseTermChanges).recordNew(with(any(LeaseTerm.class)));
             }
         });
 
@@ -110,6 +122,7 @@ public class LeaseTermTest {
         term.setFrequency(LeaseTermFrequency.YEARLY);
         term.injectClockService(mockClockService);
         term.injectLeaseTerms(mockLeaseTerms);
+        term.injectLeaseTermChanges(mockLeaseTermChanges);
         term.initialize();
     }
 
@@ -155,6 +168,24 @@ public class LeaseTermTest {
         }
     }
 
+    public static class VerifyUntil extends LeaseTermTest {
+        @Test
+        public void refreshesTermsOnceAfterCreatingThem() {
+            item.setType(LeaseItemType.RENT);
+            context.checking(new Expectations() {
+                {
+                    oneOf(mockLeaseTerms).refreshTerms(item);
+                }
+            });
+
+            term.verifyUntil(new LocalDate(2014, 1, 1));
+
+            Assert.assertThat(term.getEndDate(), Is.is(new LocalDate(2012, 12, 31)));
+            Assert.assertThat(term.getNext().getStartDate(), Is.is(new LocalDate(2013, 1, 1)));
+            Assert.assertNull(term.getNext().getNext());
+        }
+    }
+
     public static class Update extends LeaseTermTest {
 
         // TODO: the call to update is actually commented out ???
@@ -209,6 +240,19 @@ public class LeaseTermTest {
             assertThat(term.getEffectiveInterval().endDate(), Is.is(new LocalDate(2012, 3, 31)));
         }
 
+        @Test
+        public void rememberedUntilDatesChange() throws Exception {
+            term.align();
+            final LocalDateInterval effectiveInterval = term.getEffectiveInterval();
+            assertThat(term.getEffectiveInterval(), is(sameInstance(effectiveInterval)));
+
+            item.setEndDate(new LocalDate(2013, 3, 31));
+            assertThat(term.getEffectiveInterval().endDate(), Is.is(new LocalDate(2013, 3, 31)));
+
+            term.setStartDate(new LocalDate(2012, 2, 1));
+            assertThat(term.getEffectiveInterval().startDate(), Is.is(new LocalDate(2012, 2, 1)));
+        }
+
         @Test
         public void testEI() throws Exception {
             assertThat(effectiveIntervalWith("2011-01-01", "2012-12-31", null, null, "2011-02-01", null, "2011-01-01", "2011-12-31").toString(), is("2011-02-01/2012-01-01"));
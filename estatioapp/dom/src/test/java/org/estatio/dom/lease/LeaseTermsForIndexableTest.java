@@ -0,0 +1,131 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.ListMultimap;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.query.Query;
+
+import org.estatio.dom.index.Index;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class LeaseTermsForIndexableTest {
+
+    LeaseTermsForIndexable leaseTermsForIndexable;
+
+    LeaseTermForIndexable term2010;
+    LeaseTermForIndexable term2011;
+
+    @Before
+    public void setup() {
+        term2010 = newTerm(new LocalDate(2010, 1, 1), new LocalDate(2011, 1, 1), new BigDecimal("110.00"));
+        term2011 = newTerm(new LocalDate(2011, 1, 1), new LocalDate(2012, 1, 1), new BigDecimal("100.00"));
+
+        leaseTermsForIndexable = new LeaseTermsForIndexable() {
+            @SuppressWarnings("unchecked")
+            @Override
+            protected <T> List<T> allMatches(final Query<T> query) {
+                return (List<T>) Arrays.asList(term2010, term2011);
+            }
+        };
+    }
+
+    /**
+     * A term of which {@link LeaseTermForIndexable#reindex()} sets the indexed
+     * value to the given value.
+     */
+    private static LeaseTermForIndexable newTerm(
+            final LocalDate baseIndexStartDate,
+            final LocalDate nextIndexStartDate,
+            final BigDecimal reindexedValue) {
+        final LeaseTermForIndexable term = new LeaseTermForIndexable() {
+            @Override
+            public void reindex() {
+                setIndexedValue(reindexedValue);
+            }
+        };
+        term.setBaseIndexStartDate(baseIndexStartDate);
+        term.setNextIndexStartDate(nextIndexStartDate);
+        term.setIndexedValue(new BigDecimal("100.00"));
+        return term;
+    }
+
+    public static class GroupByDate extends LeaseTermsForIndexableTest {
+
+        @Test
+        public void byBaseAndNextDate() {
+            final ListMultimap<LocalDate, LeaseTermForIndexable> termsByDate = LeaseTermsForIndexable.groupByDate(
+                    Arrays.asList(term2010, term2011),
+                    Arrays.asList(new LocalDate(2011, 1, 1), new LocalDate(2012, 1, 1)));
+            assertThat(termsByDate.get(new LocalDate(2011, 1, 1)), is(Arrays.asList(term2010, term2011)));
+            assertThat(termsByDate.get(new LocalDate(2012, 1, 1)), is(Arrays.asList(term2011)));
+            assertThat(termsByDate.containsKey(new LocalDate(2010, 1, 1)), is(false));
+        }
+
+    }
+
+    public static class Reindex extends LeaseTermsForIndexableTest {
+
+        @Test
+        public void reportsChangedIndexedValues() {
+            final LeaseTermReindexation reindexation = leaseTermsForIndexable.reindex(
+                    new Index(),
+                    Collections.singleton(new LocalDate(2011, 1, 1)));
+            assertThat(reindexation.getTermsReindexed(), is(2));
+            assertThat(reindexation.getChanges().size(), is(1));
+            final LeaseTermReindexation.Change change = reindexation.getChanges().get(0);
+            assertThat(change.getTerm(), is(term2010));
+            assertThat(change.getPreviousIndexedValue(), is(new BigDecimal("100.00")));
+            assertThat(change.getIndexedValue(), is(new BigDecimal("110.00")));
+        }
+
+        @Test
+        public void eachTermOnce() {
+            term2010.setNextIndexStartDate(new LocalDate(2011, 1, 1));
+            final LeaseTermReindexation reindexation = leaseTermsForIndexable.reindex(
+                    new Index(),
+                    Arrays.asList(new LocalDate(2010, 1, 1), new LocalDate(2011, 1, 1)));
+            assertThat(reindexation.getTermsTotal(), is(2));
+            assertThat(reindexation.getChunksCommitted(), is(0));
+        }
+
+        @Test
+        public void whenIndexedValueBecomesNull() {
+            term2011 = newTerm(new LocalDate(2011, 1, 1), new LocalDate(2012, 1, 1), null);
+            final LeaseTermReindexation reindexation = leaseTermsForIndexable.reindex(
+                    new Index(),
+                    Collections.singleton(new LocalDate(2012, 1, 1)));
+            assertThat(reindexation.getChanges().size(), is(1));
+            assertThat(reindexation.getChanges().get(0).getIndexedValue(), is(nullValue()));
+        }
+    }
+
+}
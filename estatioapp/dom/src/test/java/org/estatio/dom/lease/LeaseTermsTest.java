@@ -19,9 +19,12 @@
 package org.estatio.dom.lease;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
 import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.joda.time.LocalDate;
@@ -110,6 +113,32 @@ public class LeaseTermsTest {
 
     }
 
+    public static class FindByPreviousTerms extends LeaseTermsTest {
+
+        @Test
+        public void happyCase() {
+
+            final List<LeaseTerm> previousTerms = Arrays.<LeaseTerm>asList(new LeaseTermForTesting());
+            leaseTerms.findByPreviousTerms(previousTerms);
+
+            assertThat(finderInteraction.getFinderMethod(), is(FinderMethod.ALL_MATCHES));
+
+            assertThat(finderInteraction.getResultType(), IsisMatchers.classEqualTo(LeaseTerm.class));
+            assertThat(finderInteraction.getQueryName(), is("findByPreviousTerms"));
+            assertThat(finderInteraction.getArgumentsByParameterName().get("previousTerms"), is((Object) previousTerms));
+
+            assertThat(finderInteraction.getArgumentsByParameterName().size(), is(1));
+        }
+
+        @Test
+        public void withoutTerms() {
+
+            assertThat(leaseTerms.findByPreviousTerms(Collections.<LeaseTerm>emptyList()).isEmpty(), is(true));
+
+            assertThat(finderInteraction, is(nullValue()));
+        }
+    }
+
     public static class AllInvoices extends LeaseTermsTest {
 
         @Test
@@ -0,0 +1,115 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.estatio.dom.lease.Lease;
+import org.estatio.dom.lease.LeaseItem;
+import org.estatio.dom.lease.LeaseTermForTesting;
+import org.estatio.dom.lease.invoicing.InvoiceCalculationService.CalculationResult;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CalculationResultsCacheTest {
+
+    CalculationResultsCache cache;
+    LeaseItem leaseItem;
+    LeaseTermForTesting leaseTerm;
+    int calculations;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new CalculationResultsCache();
+        final Lease lease = new Lease();
+        lease.setStartDate(new LocalDate(2014, 1, 1));
+        leaseItem = new LeaseItem();
+        leaseItem.setLease(lease);
+        leaseTerm = new LeaseTermForTesting(leaseItem, new LocalDate(2014, 1, 1), null, new BigDecimal("1000.00"));
+        calculations = 0;
+    }
+
+    public static class Execute extends CalculationResultsCacheTest {
+
+        @Test
+        public void calculatesOncePerKey() throws Exception {
+            execute(new LocalDate(2014, 1, 1));
+            execute(new LocalDate(2014, 1, 1));
+            assertThat(calculations, is(1));
+
+            execute(new LocalDate(2014, 4, 1));
+            assertThat(calculations, is(2));
+        }
+
+        @Test
+        public void recalculatesWhenInvalidated() throws Exception {
+            execute(new LocalDate(2014, 1, 1));
+            leaseTerm.invalidateCalculationResults();
+            execute(new LocalDate(2014, 1, 1));
+            assertThat(calculations, is(2));
+        }
+
+        @Test
+        public void recalculatesWhenValueSet() throws Exception {
+            execute(new LocalDate(2014, 1, 1));
+            leaseTerm.setValue(new BigDecimal("2000.00"));
+            execute(new LocalDate(2014, 1, 1));
+            assertThat(calculations, is(2));
+        }
+
+        @Test
+        public void recalculatesWhenDatesSet() throws Exception {
+            execute(new LocalDate(2014, 1, 1));
+            leaseTerm.setEndDate(new LocalDate(2014, 12, 31));
+            execute(new LocalDate(2014, 1, 1));
+            leaseItem.setEndDate(new LocalDate(2014, 6, 30));
+            execute(new LocalDate(2014, 1, 1));
+            assertThat(calculations, is(3));
+        }
+
+        @Test
+        public void recalculatesWhenCleared() throws Exception {
+            execute(new LocalDate(2014, 1, 1));
+            cache.clear();
+            execute(new LocalDate(2014, 1, 1));
+            assertThat(calculations, is(2));
+        }
+    }
+
+    List<CalculationResult> execute(final LocalDate startDueDate) {
+        return cache.execute(
+                new Callable<List<CalculationResult>>() {
+                    @Override
+                    public List<CalculationResult> call() {
+                        calculations++;
+                        return Collections.emptyList();
+                    }
+                },
+                leaseTerm,
+                startDueDate);
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.estatio.dom.invoice.Invoice;
+import org.estatio.dom.invoice.PaymentMethod;
+import org.estatio.dom.lease.Lease;
+import org.estatio.dom.party.Party;
+import org.estatio.dom.party.PartyForTesting;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class InvoiceBatchTest {
+
+    Party seller;
+    Party buyer;
+    Lease lease;
+    LocalDate dueDate;
+
+    @Before
+    public void setup() {
+        seller = new PartyForTesting();
+        buyer = new PartyForTesting();
+        lease = new Lease();
+        dueDate = new LocalDate(2014, 1, 1);
+    }
+
+    private Invoice newInvoice(final Party buyer) {
+        Invoice invoice = new Invoice();
+        invoice.setSeller(seller);
+        invoice.setBuyer(buyer);
+        invoice.setPaymentMethod(PaymentMethod.DIRECT_DEBIT);
+        invoice.setLease(lease);
+        invoice.setDueDate(dueDate);
+        return invoice;
+    }
+
+    public static class FindInvoice extends InvoiceBatchTest {
+
+        @Test
+        public void findsExistingInvoice() {
+            final Invoice invoice = newInvoice(buyer);
+            final InvoiceBatch batch = new InvoiceBatch("run", 10, Arrays.asList(invoice, newInvoice(new PartyForTesting())));
+            assertThat(batch.findInvoice(seller, buyer, PaymentMethod.DIRECT_DEBIT, lease, dueDate), is(sameInstance(invoice)));
+        }
+
+        @Test
+        public void findsCreatedInvoice() {
+            final InvoiceBatch batch = new InvoiceBatch("run", 10, Collections.<Invoice>emptyList());
+            assertThat(batch.findInvoice(seller, buyer, PaymentMethod.DIRECT_DEBIT, lease, dueDate), is(nullValue()));
+            final Invoice invoice = newInvoice(buyer);
+            batch.invoiceCreated(invoice);
+            assertThat(batch.findInvoice(seller, buyer, PaymentMethod.DIRECT_DEBIT, lease, dueDate), is(sameInstance(invoice)));
+        }
+
+        @Test
+        public void whenDifferentDueDate() {
+            final InvoiceBatch batch = new InvoiceBatch("run", 10, Arrays.asList(newInvoice(buyer)));
+            assertThat(batch.findInvoice(seller, buyer, PaymentMethod.DIRECT_DEBIT, lease, dueDate.plusMonths(3)), is(nullValue()));
+        }
+    }
+
+    public static class IsFlushDue extends InvoiceBatchTest {
+
+        @Test
+        public void afterFlushSizeObjects() {
+            final InvoiceBatch batch = new InvoiceBatch("run", 2, Collections.<Invoice>emptyList());
+            batch.invoiceCreated(newInvoice(buyer));
+            assertThat(batch.isFlushDue(), is(false));
+            batch.itemCreated();
+            assertThat(batch.isFlushDue(), is(true));
+            batch.flushed();
+            assertThat(batch.isFlushDue(), is(false));
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ package org.estatio.dom.lease.invoicing;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.List;
 import org.jmock.Expectations;
 import org.jmock.auto.Mock;
@@ -34,13 +35,17 @@ import org.estatio.dom.agreement.AgreementRoleRepository;
 import org.estatio.dom.agreement.AgreementRoleType;
 import org.estatio.dom.agreement.AgreementRoleTypeRepository;
 import org.estatio.dom.agreement.AgreementTypeRepository;
+import org.estatio.dom.asset.Unit;
 import org.estatio.dom.charge.Charge;
+import org.estatio.dom.invoice.InvoicingInterval;
 import org.estatio.dom.invoice.Invoices;
 import org.estatio.dom.lease.*;
 import org.estatio.dom.lease.invoicing.InvoiceCalculationService.CalculationResult;
+import org.estatio.dom.party.Party;
 import org.estatio.dom.tax.Tax;
 import org.estatio.dom.tax.TaxRate;
 import org.estatio.dom.tax.TaxRates;
+import org.estatio.dom.valuetypes.LocalDateInterval;
 import org.estatio.domsettings.EstatioSettingsService;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -372,5 +377,98 @@ public class InvoiceCalculationServiceTest {
 
     }
 
+    public static class CreateInvoiceItems extends InvoiceCalculationServiceTest {
 
-}
\ No newline at end of file
+        @Rule
+        public JUnitRuleMockery2 context = JUnitRuleMockery2.createFor(Mode.INTERFACES_AND_CLASSES);
+
+        @Mock
+        InvoiceItemsForLease mockInvoiceItemsForLease;
+
+        InvoiceCalculationService ic;
+
+        LeaseTermForTesting leaseTerm;
+        InvoicingInterval interval;
+        InvoiceRunContext runContext;
+        InvoiceItemForLease invoiceItem;
+
+        @Before
+        public void setup() {
+            final Lease lease = new Lease() {
+                @Override
+                public Party getPrimaryParty() {
+                    return null;
+                }
+
+                @Override
+                public Party getSecondaryParty() {
+                    return null;
+                }
+            };
+            final Occupancy occupancy = new Occupancy();
+            occupancy.setUnit(new Unit());
+            lease.getOccupancies().add(occupancy);
+
+            final LeaseItem leaseItem = new LeaseItem();
+            leaseItem.setLease(lease);
+            leaseItem.setCharge(new Charge());
+
+            leaseTerm = new LeaseTermForTesting();
+            leaseTerm.setLeaseItem(leaseItem);
+
+            final LocalDate dueDate = new LocalDate(2014, 1, 1);
+            interval = new InvoicingInterval(new LocalDateInterval(dueDate, new LocalDate(2014, 3, 31)), dueDate);
+            runContext = new InvoiceRunContext(
+                    null,
+                    new InvoiceCalculationParameters(InvoiceRunType.NORMAL_RUN, dueDate, dueDate, dueDate.plusDays(1)),
+                    null,
+                    null)
+                    .forChunk(null, new InvoicedValues(), null);
+
+            invoiceItem = new InvoiceItemForLease();
+
+            ic = new InvoiceCalculationService();
+            ic.invoiceItemsForLease = mockInvoiceItemsForLease;
+        }
+
+        @Test
+        public void withSubCentValue() {
+            expectInvoiceItemCreated();
+
+            ic.createInvoiceItems(leaseTerm, runContext, Arrays.asList(
+                    calculationResult(new BigDecimal("0.004"), BigDecimal.ZERO)));
+
+            assertThat(invoiceItem.getNetAmount(), is(new BigDecimal("0.004")));
+        }
+
+        @Test
+        public void withSubCentDifferenceFromMockValue() {
+            expectInvoiceItemCreated();
+
+            ic.createInvoiceItems(leaseTerm, runContext, Arrays.asList(
+                    calculationResult(new BigDecimal("100.004"), new BigDecimal("100.00"))));
+
+            assertThat(invoiceItem.getNetAmount(), is(new BigDecimal("0.004")));
+        }
+
+        @Test
+        public void withoutDifferenceFromMockValue() {
+            ic.createInvoiceItems(leaseTerm, runContext, Arrays.asList(
+                    calculationResult(new BigDecimal("100.004"), new BigDecimal("100.004"))));
+        }
+
+        private void expectInvoiceItemCreated() {
+            context.checking(new Expectations() {
+                {
+                    oneOf(mockInvoiceItemsForLease).createUnapprovedInvoiceItem(leaseTerm, interval.asLocalDateInterval(), runContext);
+                    will(returnValue(invoiceItem));
+                }
+            });
+        }
+
+        private CalculationResult calculationResult(final BigDecimal value, final BigDecimal mockValue) {
+            return new CalculationResult(interval, interval.asLocalDateInterval(), value, value, mockValue);
+        }
+    }
+
+}
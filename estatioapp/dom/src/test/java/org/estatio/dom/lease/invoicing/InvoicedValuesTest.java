@@ -0,0 +1,80 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.estatio.dom.lease.LeaseTerm;
+import org.estatio.dom.lease.LeaseTermForTesting;
+import org.estatio.dom.valuetypes.LocalDateInterval;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class InvoicedValuesTest {
+
+    InvoicedValues invoicedValues;
+
+    LeaseTerm leaseTerm;
+
+    LocalDateInterval interval;
+
+    @Before
+    public void setup() {
+        invoicedValues = new InvoicedValues();
+        leaseTerm = new LeaseTermForTesting();
+        interval = LocalDateInterval.including(new LocalDate(2014, 1, 1), new LocalDate(2014, 3, 31));
+    }
+
+    private InvoiceItemForLease newItem(final LeaseTerm leaseTerm, final LocalDateInterval interval, final String netAmount) {
+        InvoiceItemForLease item = new InvoiceItemForLease();
+        item.setLeaseTerm(leaseTerm);
+        item.setStartDate(interval.startDate());
+        item.setEndDate(interval.endDate());
+        item.setNetAmount(new BigDecimal(netAmount));
+        return item;
+    }
+
+    public static class InvoicedValue extends InvoicedValuesTest {
+
+        @Test
+        public void whenNothingInvoiced() {
+            assertThat(invoicedValues.invoicedValue(leaseTerm, interval), is(new BigDecimal(0)));
+        }
+
+        @Test
+        public void sumsItemsOfSameTermAndInterval() {
+            invoicedValues.add(newItem(leaseTerm, interval, "100.00"));
+            invoicedValues.add(newItem(leaseTerm, interval, "-20.50"));
+            assertThat(invoicedValues.invoicedValue(leaseTerm, interval), is(new BigDecimal("79.50")));
+        }
+
+        @Test
+        public void ignoresOtherTermsAndIntervals() {
+            invoicedValues.add(newItem(new LeaseTermForTesting(), interval, "100.00"));
+            invoicedValues.add(newItem(leaseTerm, LocalDateInterval.including(new LocalDate(2014, 4, 1), new LocalDate(2014, 6, 30)), "200.00"));
+            assertThat(invoicedValues.invoicedValue(leaseTerm, interval), is(new BigDecimal(0)));
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.estatio.dom.asset.Unit;
+import org.estatio.dom.charge.Charge;
+import org.estatio.dom.lease.Lease;
+import org.estatio.dom.lease.LeaseItem;
+import org.estatio.dom.lease.Occupancy;
+import org.estatio.dom.party.Party;
+import org.estatio.dom.party.PartyForTesting;
+import org.estatio.dom.tax.Tax;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class LeaseInvoicingSnapshotTest {
+
+    Party landlord;
+    Party tenant;
+    Unit unit;
+    Lease lease;
+
+    int partyLookups;
+
+    @Before
+    public void setup() {
+        landlord = new PartyForTesting();
+        tenant = new PartyForTesting();
+        unit = new Unit();
+
+        lease = new Lease() {
+            @Override
+            public Party getPrimaryParty() {
+                partyLookups++;
+                return landlord;
+            }
+
+            @Override
+            public Party getSecondaryParty() {
+                partyLookups++;
+                return tenant;
+            }
+        };
+        final Occupancy occupancy = new Occupancy();
+        occupancy.setUnit(unit);
+        lease.getOccupancies().add(occupancy);
+    }
+
+    public static class Parties extends LeaseInvoicingSnapshotTest {
+
+        @Test
+        public void resolvedOnce() {
+            LeaseInvoicingSnapshot snapshot = new LeaseInvoicingSnapshot(lease);
+            snapshot.getSeller();
+            snapshot.getBuyer();
+
+            assertThat(snapshot.getSeller(), is(landlord));
+            assertThat(snapshot.getBuyer(), is(tenant));
+            assertThat(snapshot.getUnit(), is(unit));
+            assertThat(partyLookups, is(2));
+        }
+
+    }
+
+    public static class TaxPercentageFor extends LeaseInvoicingSnapshotTest {
+
+        int percentageLookups;
+
+        Tax tax;
+
+        @Before
+        public void setupTax() {
+            tax = new Tax() {
+                @Override
+                public BigDecimal percentageFor(final LocalDate date) {
+                    percentageLookups++;
+                    return date.getYear() < 2014 ? new BigDecimal("19.0") : new BigDecimal("21.0");
+                }
+            };
+        }
+
+        @Test
+        public void lookedUpOncePerDate() {
+            LeaseInvoicingSnapshot snapshot = new LeaseInvoicingSnapshot(lease);
+
+            assertThat(snapshot.taxPercentageFor(tax, new LocalDate(2013, 1, 1)), is(new BigDecimal("19.0")));
+            assertThat(snapshot.taxPercentageFor(tax, new LocalDate(2013, 1, 1)), is(new BigDecimal("19.0")));
+            assertThat(snapshot.taxPercentageFor(tax, new LocalDate(2014, 1, 1)), is(new BigDecimal("21.0")));
+            assertThat(percentageLookups, is(2));
+        }
+
+        @Test
+        public void withoutTax() {
+            LeaseInvoicingSnapshot snapshot = new LeaseInvoicingSnapshot(lease);
+
+            assertThat(snapshot.taxPercentageFor(null, new LocalDate(2013, 1, 1)), is(nullValue()));
+        }
+
+        @Test
+        public void effectiveTaxOfItem() {
+            final Charge charge = new Charge();
+            charge.setTax(tax);
+            final LeaseItem leaseItem = new LeaseItem();
+            leaseItem.setCharge(charge);
+
+            LeaseInvoicingSnapshot snapshot = new LeaseInvoicingSnapshot(lease);
+
+            assertThat(snapshot.chargeOf(leaseItem), is(charge));
+            assertThat(snapshot.taxOf(leaseItem), is(tax));
+        }
+
+    }
+
+}
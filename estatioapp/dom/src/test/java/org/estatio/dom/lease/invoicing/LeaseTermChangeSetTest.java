@@ -0,0 +1,96 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.estatio.dom.lease.Lease;
+import org.estatio.dom.lease.LeaseItem;
+import org.estatio.dom.lease.LeaseTerm;
+import org.estatio.dom.lease.LeaseTermForTesting;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LeaseTermChangeSetTest {
+
+    Lease lease;
+    LeaseTerm changedTerm;
+    LeaseTerm unchangedTerm;
+    LeaseTermChange change;
+
+    @Before
+    public void setup() {
+        lease = new Lease();
+        final LeaseItem leaseItem = new LeaseItem();
+        leaseItem.setLease(lease);
+        changedTerm = new LeaseTermForTesting();
+        changedTerm.setLeaseItem(leaseItem);
+        unchangedTerm = new LeaseTermForTesting();
+        unchangedTerm.setLeaseItem(leaseItem);
+        change = new LeaseTermChange();
+        change.setLeaseTerm(changedTerm);
+        change.setReason("Lease term changed");
+    }
+
+    public static class Contains extends LeaseTermChangeSetTest {
+
+        @Test
+        public void onlyChangedTerms() {
+            final LeaseTermChangeSet changeSet = new LeaseTermChangeSet(Arrays.asList(change));
+            assertThat(changeSet.contains(changedTerm), is(true));
+            assertThat(changeSet.contains(unchangedTerm), is(false));
+            assertThat(changeSet.changesOf(changedTerm), is(Arrays.asList(change)));
+        }
+
+        @Test
+        public void onlyLeasesWithChangedTerms() {
+            final LeaseTermChangeSet changeSet = new LeaseTermChangeSet(Arrays.asList(change));
+            assertThat(changeSet.contains(lease), is(true));
+            assertThat(changeSet.contains(new Lease()), is(false));
+        }
+
+        @Test
+        public void changesOfLease() {
+            final LeaseTermChangeSet changeSet = new LeaseTermChangeSet(Arrays.asList(change));
+            assertThat(changeSet.changesOf(lease), is(Arrays.asList(change)));
+            assertThat(changeSet.changesOf(new Lease()).isEmpty(), is(true));
+        }
+    }
+
+    public static class AddAll extends LeaseTermChangeSetTest {
+
+        @Test
+        public void ignoresChangesAlreadyInTheSet() {
+            final LeaseTermChangeSet changeSet = new LeaseTermChangeSet(Arrays.asList(change));
+            final LeaseTermChange newChange = new LeaseTermChange();
+            newChange.setLeaseTerm(unchangedTerm);
+            newChange.setReason("Lease term created");
+
+            changeSet.addAll(Arrays.asList(change, newChange));
+
+            assertThat(changeSet.changesOf(changedTerm), is(Arrays.asList(change)));
+            assertThat(changeSet.changesOf(unchangedTerm), is(Arrays.asList(newChange)));
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.lease.invoicing;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+public class MoneyCentsTest {
+
+    public static class Multiply extends MoneyCentsTest {
+
+        @Test
+        public void roundsHalfUp() throws Exception {
+            assertThat(MoneyCents.multiply(new BigDecimal("0.005"), BigDecimal.ONE), is(1L));
+            assertThat(MoneyCents.multiply(new BigDecimal("0.0049"), BigDecimal.ONE), is(0L));
+        }
+
+        @Test
+        public void roundsNegativeAwayFromZero() throws Exception {
+            assertThat(MoneyCents.multiply(new BigDecimal("-0.005"), BigDecimal.ONE), is(-1L));
+            assertThat(MoneyCents.multiply(new BigDecimal("-0.0049"), BigDecimal.ONE), is(0L));
+        }
+
+        @Test
+        public void whenNull() throws Exception {
+            assertThat(MoneyCents.multiply(null, BigDecimal.ONE), is(0L));
+            assertThat(MoneyCents.multiply(BigDecimal.TEN, null), is(0L));
+        }
+
+        @Test
+        public void sameAsBigDecimal() throws Exception {
+            final BigDecimal monthly = BigDecimal.ONE.divide(BigDecimal.valueOf(12), MathContext.DECIMAL64);
+            final BigDecimal rangeFactor = BigDecimal.valueOf(17).divide(BigDecimal.valueOf(31), MathContext.DECIMAL64);
+            assertSame(new BigDecimal("123456.78"), new BigDecimal("0.25"));
+            assertSame(new BigDecimal("123456.78"), monthly);
+            assertSame(new BigDecimal("-99999.99"), monthly.multiply(rangeFactor));
+            assertSame(new BigDecimal("20000"), BigDecimal.ONE);
+            assertSame(new BigDecimal("1E+3"), new BigDecimal("0.5"));
+        }
+
+        private static void assertSame(final BigDecimal value, final BigDecimal factor) {
+            assertThat(
+                    MoneyCents.toBigDecimal(MoneyCents.multiply(value, factor)),
+                    is(value.multiply(factor).setScale(2, RoundingMode.HALF_UP)));
+        }
+    }
+
+}
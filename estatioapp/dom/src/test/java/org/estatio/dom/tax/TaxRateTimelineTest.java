@@ -0,0 +1,164 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.tax;
+
+import java.math.BigDecimal;
+
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.isis.applib.services.eventbus.AbstractDomainEvent;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class TaxRateTimelineTest {
+
+    Tax tax;
+    TaxRate r1;
+    TaxRate r2;
+
+    @Before
+    public void setUp() throws Exception {
+        tax = new Tax();
+        tax.setReference("VAT");
+        r1 = newRate(new LocalDate(2012, 1, 1), BigDecimal.valueOf(21));
+        r2 = newRate(new LocalDate(2013, 10, 1), BigDecimal.valueOf(22));
+        r1.setNext(r2);
+        r2.setPrevious(r1);
+    }
+
+    private TaxRate newRate(final LocalDate startDate, final BigDecimal percentage) {
+        final TaxRate rate = new TaxRate();
+        rate.setTax(tax);
+        rate.setStartDate(startDate);
+        rate.setPercentage(percentage);
+        tax.getRates().add(rate);
+        return rate;
+    }
+
+    public static class PercentageFor extends TaxRateTimelineTest {
+
+        @Test
+        public void beforeFirstRate() throws Exception {
+            assertThat(TaxRateTimeline.of(tax, 0).percentageFor(new LocalDate(2011, 12, 31)), is(nullValue()));
+        }
+
+        @Test
+        public void onBoundaries() throws Exception {
+            final TaxRateTimeline timeline = TaxRateTimeline.of(tax, 0);
+            assertThat(timeline.percentageFor(new LocalDate(2012, 1, 1)), is(BigDecimal.valueOf(21)));
+            assertThat(timeline.percentageFor(new LocalDate(2013, 9, 30)), is(BigDecimal.valueOf(21)));
+            assertThat(timeline.percentageFor(new LocalDate(2013, 10, 1)), is(BigDecimal.valueOf(22)));
+            assertThat(timeline.percentageFor(new LocalDate(2099, 1, 1)), is(BigDecimal.valueOf(22)));
+        }
+
+        @Test
+        public void afterEndDate() throws Exception {
+            r2.setEndDate(new LocalDate(2014, 12, 31));
+            assertThat(TaxRateTimeline.of(tax, 0).percentageFor(new LocalDate(2015, 1, 1)), is(nullValue()));
+        }
+
+        @Test
+        public void withoutRates() throws Exception {
+            tax.getRates().clear();
+            assertThat(TaxRateTimeline.of(tax, 0).percentageFor(new LocalDate(2013, 1, 1)), is(nullValue()));
+        }
+
+        @Test
+        public void withoutDate() throws Exception {
+            assertThat(TaxRateTimeline.of(tax, 0).percentageFor(null), is(nullValue()));
+        }
+
+        @Test
+        public void isNotAffectedByLaterChanges() throws Exception {
+            final TaxRateTimeline timeline = TaxRateTimeline.of(tax, 0);
+            r2.setPercentage(BigDecimal.valueOf(23));
+            assertThat(timeline.percentageFor(new LocalDate(2014, 1, 1)), is(BigDecimal.valueOf(22)));
+        }
+    }
+
+    public static class Timelines extends TaxRateTimelineTest {
+
+        TaxRateTimelines timelines;
+
+        @Before
+        public void setUpTimelines() throws Exception {
+            timelines = new TaxRateTimelines();
+            timelines.pendingChangesOfRequest = new TaxRateTimelines.PendingChanges();
+            timelines.pendingChangesOfRequest.taxRateTimelines = timelines;
+        }
+
+        @Test
+        public void isShared() throws Exception {
+            assertThat(timelines.timelineFor(tax), is(sameInstance(timelines.timelineFor(tax))));
+        }
+
+        @Test
+        public void isNotSharedUntilTheChangingRequestHasEnded() throws Exception {
+            final TaxRateTimeline before = timelines.timelineFor(tax);
+
+            r2.setPercentage(BigDecimal.valueOf(23));
+            timelines.on(new TaxRate.ChangeEvent(r2, null, (Object[]) null));
+
+            final TaxRateTimeline during = timelines.timelineFor(tax);
+            assertThat(during, is(not(sameInstance(before))));
+            assertThat(during.percentageFor(new LocalDate(2014, 1, 1)), is(BigDecimal.valueOf(23)));
+            assertThat(timelines.timelineFor(tax), is(not(sameInstance(during))));
+
+            timelines.pendingChangesOfRequest.endRequest();
+
+            final TaxRateTimeline after = timelines.timelineFor(tax);
+            assertThat(after.getVersion() > before.getVersion(), is(true));
+            assertThat(timelines.timelineFor(tax), is(sameInstance(after)));
+        }
+
+        @Test
+        public void ofBothTaxesWhenRateIsMovedToAnotherTax() throws Exception {
+            final Tax otherTax = new Tax();
+            otherTax.setReference("VAT_OTHER");
+            final TaxRateTimeline before = timelines.timelineFor(tax);
+            assertThat(timelines.timelineFor(otherTax).size(), is(0));
+
+            final TaxRate.ChangeEvent executing = new TaxRate.ChangeEvent(r2, null, otherTax, r2.getPercentage(), null);
+            executing.setEventPhase(AbstractDomainEvent.Phase.EXECUTING);
+            timelines.on(executing);
+
+            tax.getRates().remove(r2);
+            r1.setNext(null);
+            r2.setPrevious(null);
+            r2.setTax(otherTax);
+            otherTax.getRates().add(r2);
+
+            final TaxRate.ChangeEvent executed = new TaxRate.ChangeEvent(r2, null, otherTax, r2.getPercentage(), null);
+            executed.setEventPhase(AbstractDomainEvent.Phase.EXECUTED);
+            timelines.on(executed);
+            timelines.pendingChangesOfRequest.endRequest();
+
+            assertThat(timelines.timelineFor(tax), is(not(sameInstance(before))));
+            assertThat(timelines.timelineFor(tax).percentageFor(new LocalDate(2014, 1, 1)), is(BigDecimal.valueOf(21)));
+            assertThat(timelines.timelineFor(otherTax).percentageFor(new LocalDate(2014, 1, 1)), is(BigDecimal.valueOf(22)));
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.utils;
+
+import org.joda.time.Interval;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class IntervalCalendarTest {
+
+    static final LocalDate START_DATE = new LocalDate(2000, 1, 1);
+
+    void assertSameAsIteration(final String rrule, final LocalDate startDate) {
+        final IntervalCalendar calendar = new IntervalCalendar(rrule, startDate, new LocalDate(2020, 1, 1));
+        for (LocalDate date = new LocalDate(1999, 12, 1); date.isBefore(new LocalDate(2020, 1, 1)); date = date.plusDays(3)) {
+            final Interval expected = CalendarUtils.currentInterval(date, rrule, startDate);
+            assertThat(date.toString(), calendar.intervalContaining(date), is(expected));
+        }
+    }
+
+    public static class IntervalContaining extends IntervalCalendarTest {
+
+        @Test
+        public void quarterly() {
+            assertSameAsIteration("RRULE:FREQ=MONTHLY;INTERVAL=3", START_DATE);
+        }
+
+        @Test
+        public void quarterlyPlusOneMonth() {
+            assertSameAsIteration("RRULE:FREQ=MONTHLY;INTERVAL=3;BYMONTH=2,5,8,11", START_DATE);
+        }
+
+        @Test
+        public void weekly() {
+            assertSameAsIteration("RRULE:FREQ=WEEKLY;INTERVAL=1", START_DATE);
+        }
+
+        @Test
+        public void yearlyFromOtherStartDate() {
+            assertSameAsIteration("RRULE:FREQ=YEARLY;INTERVAL=1", new LocalDate(2003, 7, 15));
+        }
+
+        @Test
+        public void beyondHorizon() {
+            final IntervalCalendar calendar = new IntervalCalendar("RRULE:FREQ=MONTHLY;INTERVAL=3", START_DATE, new LocalDate(2010, 1, 1));
+            assertNull(calendar.intervalContaining(new LocalDate(2015, 1, 1)));
+        }
+    }
+
+}
@@ -15,6 +15,7 @@ import org.junit.rules.ExpectedException;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.junit.Assert.assertThat;
 
@@ -112,6 +113,31 @@ public class ApplicationTenancyLevelTest {
         public void root() throws Exception {
             Assert.assertThat(atl("/").parent(), is(nullValue()));
         }
+
+        @Test
+        public void isInterned() throws Exception {
+            Assert.assertThat(atl("/a/bb").parent(), is(sameInstance(ApplicationTenancyLevel.of("/a"))));
+            Assert.assertThat(atl("/a").parent(), is(sameInstance(ApplicationTenancyLevel.of("/"))));
+        }
+    }
+
+    public static class Of extends ApplicationTenancyLevelTest {
+
+        @Test
+        public void isInterned() throws Exception {
+            Assert.assertThat(ApplicationTenancyLevel.of("/a/bb"), is(sameInstance(ApplicationTenancyLevel.of("/a/bb"))));
+        }
+
+        @Test
+        public void whenNull() throws Exception {
+            Assert.assertThat(ApplicationTenancyLevel.of((String) null), is(nullValue()));
+        }
+
+        @Test
+        public void depth() throws Exception {
+            Assert.assertThat(ApplicationTenancyLevel.of("/").getDepth(), is(0));
+            Assert.assertThat(ApplicationTenancyLevel.of("/a/bb").getDepth(), is(2));
+        }
     }
 
     public static class Child extends ApplicationTenancyLevelTest {
@@ -26,6 +26,12 @@ import org.apache.isis.applib.services.jdosupport.IsisJdoSupport;
 
 public abstract class UdoDomainRepositoryAndFactory<T> extends UdoDomainService<T> {
 
+    /**
+     * Maximum number of values passed in a single <tt>IN</tt> parameter of a
+     * query; longer lists are queried in chunks of this size.
+     */
+    public static final int IN_PARAMETER_CHUNK_SIZE = 50;
+
     private final Class<T> entityType;
 
     protected UdoDomainRepositoryAndFactory(
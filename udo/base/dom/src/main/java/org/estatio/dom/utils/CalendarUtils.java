@@ -21,6 +21,8 @@ package org.estatio.dom.utils;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.google.common.collect.Lists;
 import com.google.ical.compat.jodatime.LocalDateIterator;
@@ -39,6 +41,13 @@ public final class CalendarUtils {
      */
     private static final LocalDate START_DATE_DEFAULT = new LocalDate(2000, 1, 1);
 
+    /**
+     * Dates beyond this horizon are not precomputed, see {@link #intervalContaining(LocalDate, String)}.
+     */
+    private static final LocalDate HORIZON_DEFAULT = new LocalDate(2100, 1, 1);
+
+    private static final ConcurrentMap<String, IntervalCalendar> CALENDARS = new ConcurrentHashMap<String, IntervalCalendar>();
+
     private CalendarUtils() {
     }
 
@@ -65,9 +74,28 @@ public final class CalendarUtils {
      * @return
      */
     public static Interval intervalContaining(final LocalDate containingDate, final String rrule) {
+        if (containingDate == null || rrule == null) {
+            return null;
+        }
+        final Interval interval = calendarFor(rrule).intervalContaining(containingDate);
+        if (interval != null) {
+            return interval;
+        }
         return currentInterval(containingDate, rrule, START_DATE_DEFAULT);
     }
 
+    private static IntervalCalendar calendarFor(final String rrule) {
+        IntervalCalendar calendar = CALENDARS.get(rrule);
+        if (calendar == null) {
+            calendar = new IntervalCalendar(rrule, START_DATE_DEFAULT, HORIZON_DEFAULT);
+            final IntervalCalendar existing = CALENDARS.putIfAbsent(rrule, calendar);
+            if (existing != null) {
+                calendar = existing;
+            }
+        }
+        return calendar;
+    }
+
     public static Interval currentInterval(
             final LocalDate date,
             final String rrule,
@@ -0,0 +1,96 @@
+/*
+ *
+ *  Copyright 2012-2014 Eurocommercial Properties NV
+ *
+ *
+ *  Licensed under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.estatio.dom.utils;
+
+import java.text.ParseException;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.google.ical.compat.jodatime.LocalDateIterator;
+import com.google.ical.compat.jodatime.LocalDateIteratorFactory;
+
+import org.joda.time.Interval;
+import org.joda.time.LocalDate;
+
+import org.estatio.dom.EstatioApplicationException;
+
+/**
+ * Immutable, precomputed list of the period boundaries generated by an rrule
+ * from a given start date up to a horizon.
+ *
+ * <p>
+ * Gives the same results as {@link CalendarUtils#currentInterval(LocalDate, String, LocalDate)}
+ * but uses a binary search instead of iterating the rrule from the start date
+ * on every call. Instances are safe to share between threads.
+ */
+public final class IntervalCalendar {
+
+    private final LocalDate[] boundaries;
+    private final long[] boundaryMillis;
+
+    /**
+     * @param rrule
+     * @param startDate - the start of the first interval
+     * @param horizon - boundaries are generated up to the first one after this date
+     */
+    public IntervalCalendar(final String rrule, final LocalDate startDate, final LocalDate horizon) {
+        final List<LocalDate> dates = Lists.newArrayList(startDate);
+        try {
+            final LocalDateIterator iter =
+                    LocalDateIteratorFactory.createLocalDateIterator(rrule, startDate, true);
+            while (iter.hasNext()) {
+                final LocalDate nextDate = iter.next();
+                dates.add(nextDate);
+                if (nextDate.isAfter(horizon)) {
+                    break;
+                }
+            }
+        } catch (final ParseException ex) {
+            throw new EstatioApplicationException("Unable to parse rrule >>" + rrule + "<<", ex);
+        }
+        boundaries = dates.toArray(new LocalDate[dates.size()]);
+        boundaryMillis = new long[boundaries.length];
+        for (int i = 0; i < boundaries.length; i++) {
+            boundaryMillis[i] = boundaries[i].toInterval().getStartMillis();
+        }
+    }
+
+    /**
+     * Returns the interval containing the date, or <tt>null</tt> if the date
+     * lies beyond the last precomputed boundary.
+     */
+    public Interval intervalContaining(final LocalDate date) {
+        int low = 1;
+        int high = boundaries.length - 1;
+        if (high < low || boundaries[high].compareTo(date) <= 0) {
+            return null;
+        }
+        // find the first boundary after the date
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (boundaries[mid].compareTo(date) > 0) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return new Interval(boundaryMillis[low - 1], boundaryMillis[low]);
+    }
+
+}